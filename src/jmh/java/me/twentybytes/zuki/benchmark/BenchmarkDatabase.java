@@ -0,0 +1,58 @@
+package me.twentybytes.zuki.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import me.twentybytes.zuki.api.database.ZukiDatabase;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Embedded H2 (MySQL mode) stand-in database used by benchmarks,
+ * so they can run offline without real MySQL server.
+ */
+public class BenchmarkDatabase extends ZukiDatabase {
+
+    public BenchmarkDatabase(@NotNull String name, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        setConfig(config);
+    }
+
+    /**
+     * Executes statements directly, used for fixtures.
+     *
+     * @param queries executing queries.
+     */
+    public BenchmarkDatabase prepare(String... queries) throws Exception {
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            for (String query : queries) {
+                statement.execute(query);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Blocking function registered as {@code BENCH_SLEEP}, simulates slow query.
+     *
+     * @param millis sleep time.
+     * @return       sleep time.
+     */
+    public static int sleep(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+
+    /**
+     * @return statement which registers {@link #sleep(int)} as sql function.
+     */
+    public static String sleepAlias() {
+        return "CREATE ALIAS IF NOT EXISTS BENCH_SLEEP FOR \"" + BenchmarkDatabase.class.getName() + ".sleep\"";
+    }
+
+}
@@ -0,0 +1,84 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.request.ArgumentBuffer;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement arguments binding: boxed varargs bound by {@code setObject}
+ * versus reused {@link ArgumentBuffer} bound by typed setters.
+ * Run with {@code -prof gc} to compare allocation per statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    static final String INSERT = "INSERT INTO bind_bench (id, score, ratio, name) VALUES (?, ?, ?, ?)";
+
+    BenchmarkDatabase database;
+    Connection connection;
+    PreparedStatement prepared;
+    ArgumentBuffer buffer = new ArgumentBuffer(4);
+    Request request = Request.newBuilder(RequestType.UPDATE).body(INSERT).sync(true);
+    long id = 1_000_000;
+
+    @Setup
+    public void setup() throws Exception {
+        database = new BenchmarkDatabase("bind", 2);
+        database.start();
+        database.prepare("CREATE TABLE bind_bench (id BIGINT, score INT, ratio DOUBLE, name VARCHAR(32))");
+        connection = database.connection();
+        prepared = connection.prepareStatement(INSERT);
+        request.arguments(buffer);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        prepared.close();
+        connection.close();
+        database.close();
+        database.getService().shutdown();
+    }
+
+    @Benchmark
+    public PreparedStatement bindObjects() throws Exception {
+        long id = this.id++;
+        Object[] args = {id, (int) id, id * 0.5D, "player"};
+        for (int i = 0; i < args.length; i++) {
+            prepared.setObject(i + 1, args[i]);
+        }
+        return prepared;
+    }
+
+    @Benchmark
+    public PreparedStatement bindBuffer() throws Exception {
+        long id = this.id++;
+        buffer.bindLong(1, id).bindInt(2, (int) id).bindDouble(3, id * 0.5D).bindString(4, "player");
+        buffer.bindTo(prepared);
+        return prepared;
+    }
+
+    @Benchmark
+    public void updateObjects() {
+        long id = this.id++;
+        database.execute(Request.newBuilder(RequestType.UPDATE).body(INSERT).sync(true)
+                .arguments(id, (int) id, id * 0.5D, "player"));
+    }
+
+    @Benchmark
+    public void updateBuffer() {
+        long id = this.id++;
+        buffer.bindLong(1, id).bindInt(2, (int) id).bindDouble(3, id * 0.5D).bindString(4, "player");
+        database.execute(request);
+    }
+
+}
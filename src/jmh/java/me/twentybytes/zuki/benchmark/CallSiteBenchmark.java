@@ -0,0 +1,61 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.execution.CallSiteCapture;
+import me.twentybytes.zuki.impl.execution.CallSite;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cost of call site capture modes with legacy
+ * {@code Thread.getStackTrace()} copy on stacks of different depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallSiteBenchmark {
+
+    @Param({"20", "100"})
+    int stackDepth;
+
+    @State(Scope.Benchmark)
+    public static class Capture {
+
+        @Param({"OFF", "LAZY", "SAMPLED", "FULL"})
+        CallSiteCapture mode;
+
+    }
+
+    @Benchmark
+    public Object capture(Capture capture) {
+        return nested(stackDepth, capture.mode);
+    }
+
+    @Benchmark
+    public Object captureAndResolve(Capture capture) {
+        CallSite callSite = (CallSite) nested(stackDepth, capture.mode);
+        return callSite.trace();
+    }
+
+    @Benchmark
+    public Object legacyStackTrace() {
+        return nested(stackDepth, null);
+    }
+
+    private Object nested(int depth, CallSiteCapture mode) {
+        if (depth > 0) {
+            return nested(depth - 1, mode);
+        }
+
+        if (mode == null) {
+            StackTraceElement[] source = Thread.currentThread().getStackTrace();
+            return Arrays.copyOfRange(source, 2, source.length);
+        }
+        return CallSite.capture(mode, 16, 100);
+    }
+
+}
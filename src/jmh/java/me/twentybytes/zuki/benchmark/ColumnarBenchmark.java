@@ -0,0 +1,88 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.callback.SelectCallback;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import me.twentybytes.zuki.api.result.ColumnCursor;
+import me.twentybytes.zuki.api.result.ColumnarResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large analytic read: boxed rows ({@code getObject} into list of maps) through
+ * plain {@link SelectCallback} versus columnar chunks read by primitive getters.
+ * Run with {@code -prof gc} to compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarBenchmark {
+
+    static final String QUERY = "SELECT id, amount, score, category FROM columnar_bench";
+
+    @Param({"100000"})
+    int rows;
+
+    BenchmarkDatabase database;
+
+    @Setup
+    public void setup() throws Exception {
+        database = new BenchmarkDatabase("columnar", 2);
+        // h2 does not support streaming (negative) fetch size.
+        database.setStreamingFetchSize(1024);
+        database.start();
+        database.prepare(
+                "CREATE TABLE columnar_bench (id INT, amount BIGINT, score DOUBLE, category VARCHAR(16))",
+                "INSERT INTO columnar_bench SELECT X, X * 1000, X / 3.0, 'category-' || MOD(X, 16) FROM SYSTEM_RANGE(1, " + rows + ")"
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+        database.getService().shutdown();
+    }
+
+    @Benchmark
+    public double boxedRows() throws Exception {
+        List<Map<String, Object>> result = new ArrayList<>();
+        database.submit(Request.newBuilder(RequestType.SELECT).body(QUERY).callback((SelectCallback) set -> {
+            ResultSetMetaData meta = set.getMetaData();
+            while (set.next()) {
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    row.put(meta.getColumnLabel(i), set.getObject(i));
+                }
+                result.add(row);
+            }
+        })).get();
+
+        double sum = 0;
+        for (Map<String, Object> row : result) {
+            sum += ((Number) row.get("AMOUNT")).longValue() + ((Number) row.get("SCORE")).doubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double columnar() throws Exception {
+        ColumnarResult result = database.selectColumns(Request.newBuilder(RequestType.SELECT).body(QUERY)).get();
+
+        double sum = 0;
+        ColumnCursor cursor = result.cursor();
+        while (cursor.next()) {
+            sum += cursor.getLong(2) + cursor.getDouble(3);
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,63 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.execution.ExecutionMode;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares throughput of blocking queries between fixed 3-thread pool
+ * and thread-per-request (virtual threads) execution modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"FIXED_POOL", "VIRTUAL_THREADS"})
+    ExecutionMode mode;
+
+    @Param({"1"})
+    int queryMillis;
+
+    @Param({"64"})
+    int requests;
+
+    BenchmarkDatabase database;
+
+    @Setup
+    public void setup() throws Exception {
+        database = new BenchmarkDatabase("execution_mode", 16);
+        database.executionMode(mode).start();
+        database.prepare(BenchmarkDatabase.sleepAlias());
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+        database.getService().shutdown();
+    }
+
+    /**
+     * Fires batch of concurrent slow selects and waits for all of them.
+     */
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void concurrentSelects() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            database.execute(Request.newBuilder(RequestType.SELECT)
+                    .body("SELECT BENCH_SLEEP(?)")
+                    .arguments(queryMillis)
+                    .selectCallback(set -> latch.countDown()));
+        }
+        latch.await();
+    }
+
+}
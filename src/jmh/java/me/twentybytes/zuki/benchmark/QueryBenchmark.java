@@ -0,0 +1,67 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.request.Query;
+import me.twentybytes.zuki.api.request.QueryTemplate;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building typical query: fluent {@link Query} per request
+ * versus binding precompiled {@link QueryTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    QueryTemplate template;
+    QueryTemplate listTemplate;
+    List<Integer> ids = List.of(1, 2, 3, 4, 5);
+    int id = 42;
+
+    @Setup
+    public void setup() {
+        template = Query.newBuilder().select().append(" name, score").from("players")
+                .where("id = ").param("id").and().append(" score > ").param("score")
+                .orderBy("score").desc().limit(10)
+                .compile();
+        listTemplate = Query.newBuilder().select().append(" name").from("players")
+                .where("id").in("ids")
+                .compile();
+    }
+
+    @Benchmark
+    public String queryBuilder() {
+        return Query.newBuilder().select().append(" name, score").from("players")
+                .where("id = ").append(id).and().append(" score > ").append(100)
+                .orderBy("score").desc().limit(10)
+                .build();
+    }
+
+    @Benchmark
+    public Object templateBind() {
+        return template.bind(RequestType.SELECT)
+                .set("id", id)
+                .set("score", 100)
+                .request();
+    }
+
+    @Benchmark
+    public Object templateListBind() {
+        return listTemplate.bind(RequestType.SELECT)
+                .set("ids", ids)
+                .request();
+    }
+
+    @Benchmark
+    public QueryTemplate templateCompile() {
+        return QueryTemplate.compile("SELECT name, score FROM players WHERE id = :id AND score > :score ORDER BY score DESC LIMIT 10");
+    }
+
+}
@@ -0,0 +1,88 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.callback.UpdateCallback;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code ZukiDatabase.execute} for point selects and updates
+ * in async, sync and queued modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+
+    public enum Mode {
+        ASYNC,
+        SYNC,
+        QUEUED
+    }
+
+    private static final int ROWS = 1000;
+    private static final int REQUESTS = 100;
+
+    @Param({"SELECT", "UPDATE"})
+    RequestType type;
+
+    @Param({"ASYNC", "SYNC", "QUEUED"})
+    Mode mode;
+
+    BenchmarkDatabase database;
+
+    @Setup
+    public void setup() throws Exception {
+        database = new BenchmarkDatabase("request", 8);
+        database.start();
+        database.prepare(
+                "CREATE TABLE IF NOT EXISTS bench (id INT PRIMARY KEY, name VARCHAR(32), score INT)",
+                "DELETE FROM bench",
+                "INSERT INTO bench SELECT X, CONCAT('player', X), 0 FROM SYSTEM_RANGE(1, " + ROWS + ")");
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+        database.getService().shutdown();
+    }
+
+    /**
+     * Executes batch of requests and waits for all callbacks.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void execute() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(REQUESTS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < REQUESTS; i++) {
+            Request request = type == RequestType.SELECT
+                    ? Request.newBuilder(RequestType.SELECT)
+                        .body("SELECT name, score FROM bench WHERE id = ?")
+                        .selectCallback(set -> {
+                            while (set.next()) {
+                                set.getString(1);
+                                set.getInt(2);
+                            }
+                            latch.countDown();
+                        })
+                    : Request.newBuilder(RequestType.UPDATE)
+                        .body("UPDATE bench SET score = score + 1 WHERE id = ?")
+                        .callback((UpdateCallback) count -> latch.countDown());
+
+            database.execute(request
+                    .arguments(random.nextInt(1, ROWS + 1))
+                    .sync(mode == Mode.SYNC)
+                    .queue(mode == Mode.QUEUED));
+        }
+        latch.await();
+    }
+
+}
@@ -0,0 +1,99 @@
+package me.twentybytes.zuki.benchmark;
+
+import me.twentybytes.zuki.api.script.Script;
+import me.twentybytes.zuki.impl.script.SqlScriptReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script splitting speed of {@link SqlScriptReader} against legacy regex
+ * {@link Scanner} splitting, and whole {@code stream()} script execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScriptBenchmark {
+
+    @Param({"10000"})
+    int statements;
+
+    String script;
+    byte[] bytes;
+
+    /**
+     * Database of execution benchmark, so parsing benchmarks are not repeated per batch size.
+     */
+    @State(Scope.Benchmark)
+    public static class Execution {
+
+        @Param({"1", "100"})
+        int batchSize;
+
+        BenchmarkDatabase database;
+
+        @Setup
+        public void setup() throws Exception {
+            database = new BenchmarkDatabase("script", 2);
+            database.start();
+            database.prepare(
+                    "CREATE TABLE IF NOT EXISTS script (id INT PRIMARY KEY, name VARCHAR(32), score INT)",
+                    "DELETE FROM script",
+                    "INSERT INTO script SELECT X, 'player', 0 FROM SYSTEM_RANGE(0, 999)");
+        }
+
+        @TearDown
+        public void tearDown() {
+            database.close();
+            database.getService().shutdown();
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("-- generated benchmark script\n");
+        for (int i = 0; i < statements; i++) {
+            builder.append("UPDATE script SET name = 'player;").append(i).append("', score = score + 1 WHERE id = ")
+                    .append(i % 1000).append("; /* row ").append(i).append(" */\n");
+        }
+        script = builder.toString();
+        bytes = script.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void parseReader(Blackhole blackhole) throws Exception {
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                blackhole.consume(statement);
+            }
+        }
+    }
+
+    /**
+     * Legacy splitting, kept as baseline. Splits inside strings, so statements are not valid.
+     */
+    @Benchmark
+    public void parseScanner(Blackhole blackhole) {
+        try (Scanner scanner = new Scanner(new StringReader(script)).useDelimiter(";")) {
+            while (scanner.hasNext()) {
+                blackhole.consume(scanner.next().trim());
+            }
+        }
+    }
+
+    @Benchmark
+    public Object execute(Execution execution) {
+        return execution.database.script(Script.newBuilder(new ByteArrayInputStream(bytes)).batchSize(execution.batchSize)).join();
+    }
+
+}
@@ -0,0 +1,97 @@
+package me.twentybytes.zuki.api.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+import me.twentybytes.zuki.impl.bulk.PublisherIterator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk load specification: target table, columns and rows source.
+ * Every row is array of column values in {@link #columns(String...)} order.
+ */
+@Getter @ToString
+public class BulkLoad {
+
+    private final String table;
+    private String[] columns = new String[0];
+    @ToString.Exclude
+    private Iterator<Object[]> rows;
+    private boolean localInfile = true;
+    private int chunkSize = 1000;
+    private long progressInterval = 100_000;
+    @ToString.Exclude
+    private Consumer<BulkLoadResult> progress;
+
+    public BulkLoad(@NotNull String table) {
+        this.table = table;
+    }
+
+    /**
+     * @param columns loaded columns.
+     */
+    public BulkLoad columns(@NotNull String... columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * @param rows rows iterator.
+     */
+    public BulkLoad rows(@NotNull Iterator<Object[]> rows) {
+        this.rows = rows;
+        return this;
+    }
+
+    /**
+     * @param rows rows stream, consumed lazily.
+     */
+    public BulkLoad rows(@NotNull Stream<Object[]> rows) {
+        return rows(rows.iterator());
+    }
+
+    /**
+     * @param rows rows publisher, rows are requested in small portions.
+     */
+    public BulkLoad rows(@NotNull Flow.Publisher<Object[]> rows) {
+        return rows(new PublisherIterator<>(rows, 256));
+    }
+
+    /**
+     * @param localInfile false forces chunked multi-row inserts instead of {@code LOAD DATA LOCAL INFILE}.
+     */
+    public BulkLoad localInfile(boolean localInfile) {
+        this.localInfile = localInfile;
+        return this;
+    }
+
+    /**
+     * @param chunkSize rows count of one multi-row insert in fallback mode.
+     */
+    public BulkLoad chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param interval rows count between progress reports.
+     * @param progress progress listener, called on loading thread.
+     */
+    public BulkLoad progress(long interval, @NotNull Consumer<BulkLoadResult> progress) {
+        this.progressInterval = Math.max(interval, 1);
+        this.progress = progress;
+        return this;
+    }
+
+    public static BulkLoad newBuilder(@NotNull String table) {
+        return new BulkLoad(table);
+    }
+
+}
@@ -0,0 +1,36 @@
+package me.twentybytes.zuki.api.bulk;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bulk load progress or result.
+ */
+@Getter @ToString
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BulkLoadResult {
+
+    /**
+     * Used loading method.
+     */
+    public enum Method {
+        LOCAL_INFILE,
+        INSERT
+    }
+
+    Method method;
+    long rows;
+    long elapsedNanos;
+
+    /**
+     * @return average loading speed.
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000D / elapsedNanos;
+    }
+
+}
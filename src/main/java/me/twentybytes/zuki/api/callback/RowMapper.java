@@ -0,0 +1,14 @@
+package me.twentybytes.zuki.api.callback;
+
+import java.sql.ResultSet;
+
+/**
+ * Maps current row of result set to object.
+ *
+ * @param <T> row type.
+ */
+public interface RowMapper<T> {
+
+    T map(ResultSet set) throws Throwable;
+
+}
@@ -0,0 +1,192 @@
+package me.twentybytes.zuki.api.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Getter;
+import lombok.ToString;
+import me.twentybytes.zuki.api.pool.AdaptivePoolPolicy;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool and driver settings. Defaults match previous hardcoded pool settings.
+ */
+@Getter @ToString
+public class PoolConfig {
+
+    private int maximumPoolSize = 6;
+    private int minimumIdle = -1;
+    private long connectionTimeout = 30000;
+    private long idleTimeout = 600000;
+    private long maxLifetime = 1800000;
+    private long leakDetectionThreshold = 10000;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private AdaptivePoolPolicy adaptive;
+
+    public PoolConfig() {
+        // Simply caching for improve prepare speed similar statements.
+        properties.put("cachePrepStmts", "true");
+        properties.put("prepStmtCacheSize", "50");
+        properties.put("prepStmtCacheSqlLimit", "512");
+        properties.put("characterEncoding", "utf8");
+        properties.put("useUnicode", "true");
+    }
+
+    /**
+     * @param size max active connections count.
+     */
+    public PoolConfig maximumPoolSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Illegal pool size: " + size);
+        }
+        this.maximumPoolSize = size;
+        return this;
+    }
+
+    /**
+     * @param minimumIdle min idle connections count, negative means maximum pool size.
+     */
+    public PoolConfig minimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+        return this;
+    }
+
+    /**
+     * @param timeout max wait of connection from pool.
+     */
+    public PoolConfig connectionTimeout(@NotNull Duration timeout) {
+        this.connectionTimeout = timeout.toMillis();
+        return this;
+    }
+
+    /**
+     * @param timeout max idle time of connections above minimum idle count.
+     */
+    public PoolConfig idleTimeout(@NotNull Duration timeout) {
+        this.idleTimeout = timeout.toMillis();
+        return this;
+    }
+
+    /**
+     * @param lifetime max connection lifetime, should be less than server {@code wait_timeout}.
+     */
+    public PoolConfig maxLifetime(@NotNull Duration lifetime) {
+        this.maxLifetime = lifetime.toMillis();
+        return this;
+    }
+
+    /**
+     * @param threshold connection die time, zero disables leak detection.
+     */
+    public PoolConfig leakDetectionThreshold(@NotNull Duration threshold) {
+        this.leakDetectionThreshold = threshold.toMillis();
+        return this;
+    }
+
+    /**
+     * @param name  driver property name, e.g. {@code prepStmtCacheSize}.
+     * @param value driver property value, null removes property.
+     */
+    public PoolConfig property(@NotNull String name, String value) {
+        if (value == null) {
+            properties.remove(name);
+        } else {
+            properties.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * @param adaptive adaptive pool sizing policy, null disables adaptive sizing.
+     */
+    public PoolConfig adaptive(AdaptivePoolPolicy adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    /**
+     * @return driver properties.
+     */
+    public Map<String, String> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * @param config hikari pool config to fill.
+     */
+    public void apply(@NotNull HikariConfig config) {
+        config.setMaximumPoolSize(maximumPoolSize);
+        if (minimumIdle >= 0) {
+            config.setMinimumIdle(minimumIdle);
+        }
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+        config.setLeakDetectionThreshold(leakDetectionThreshold);
+        properties.forEach(config::addDataSourceProperty);
+    }
+
+    /**
+     * Parses pool section of config file, durations are specified in millis.
+     *
+     * @param storage pool section.
+     * @return        pool config, missing params are default.
+     */
+    @SuppressWarnings("unchecked")
+    public static PoolConfig from(@NotNull Map<String, Object> storage) {
+        PoolConfig pool = new PoolConfig();
+        if (storage.get("maximumPoolSize") instanceof Number) {
+            pool.maximumPoolSize(((Number) storage.get("maximumPoolSize")).intValue());
+        }
+        if (storage.get("minimumIdle") instanceof Number) {
+            pool.minimumIdle(((Number) storage.get("minimumIdle")).intValue());
+        }
+        if (storage.get("connectionTimeout") instanceof Number) {
+            pool.connectionTimeout(Duration.ofMillis(((Number) storage.get("connectionTimeout")).longValue()));
+        }
+        if (storage.get("idleTimeout") instanceof Number) {
+            pool.idleTimeout(Duration.ofMillis(((Number) storage.get("idleTimeout")).longValue()));
+        }
+        if (storage.get("maxLifetime") instanceof Number) {
+            pool.maxLifetime(Duration.ofMillis(((Number) storage.get("maxLifetime")).longValue()));
+        }
+        if (storage.get("leakDetectionThreshold") instanceof Number) {
+            pool.leakDetectionThreshold(Duration.ofMillis(((Number) storage.get("leakDetectionThreshold")).longValue()));
+        }
+
+        Map<String, Object> properties = (Map<String, Object>) storage.get("properties");
+        if (properties != null) {
+            properties.forEach((name, value) -> pool.property(name, value == null ? null : String.valueOf(value)));
+        }
+
+        Map<String, Object> adaptive = (Map<String, Object>) storage.get("adaptive");
+        if (adaptive != null) {
+            AdaptivePoolPolicy policy = AdaptivePoolPolicy.newBuilder();
+            policy.bounds(number(adaptive, "minSize", policy.getMinSize()), number(adaptive, "maxSize", policy.getMaxSize()));
+            policy.interval(Duration.ofMillis(number(adaptive, "interval", policy.getInterval())));
+            policy.targetWait(Duration.ofMillis(number(adaptive, "targetWait", policy.getTargetWait())));
+            policy.step(number(adaptive, "step", policy.getStep()));
+            policy.shrinkDelay(number(adaptive, "shrinkDelay", policy.getShrinkDelay()));
+            pool.adaptive(policy);
+        }
+        return pool;
+    }
+
+    private static int number(Map<String, Object> storage, String name, int def) {
+        Object value = storage.get(name);
+        return value instanceof Number ? ((Number) value).intValue() : def;
+    }
+
+    private static long number(Map<String, Object> storage, String name, long def) {
+        Object value = storage.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : def;
+    }
+
+    public static PoolConfig newBuilder() {
+        return new PoolConfig();
+    }
+
+}
@@ -9,12 +9,16 @@ package me.twentybytes.zuki.api.config;
 import lombok.SneakyThrows;
 import me.twentybytes.zuki.impl.config.SimpleZukiConfig;
 import org.jetbrains.annotations.NotNull;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.json.JSONTokener;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -50,12 +54,28 @@ public interface ZukiConfig {
      */
     int port();
 
+    /**
+     * @return read replicas configs, empty if replicas are not used.
+     */
+    default List<ZukiConfig> replicas() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return connection pool and driver settings.
+     */
+    default PoolConfig pool() {
+        return PoolConfig.newBuilder();
+    }
+
     String[] CONFIG_PARAMS = {
             "address",
             "port",
             "database",
             "username",
-            "password"
+            "password",
+            "replicas",
+            "pool"
     };
 
     /**
@@ -64,6 +84,7 @@ public interface ZukiConfig {
      * @return     parsed ZukiConfig from file.
      */
     @SneakyThrows @NotNull
+    @SuppressWarnings("unchecked")
     static ZukiConfig from(@NotNull File file, @NotNull ConfigType type) {
         if (!file.exists()) {
             throw new IllegalStateException("Config file does`nt exists...");
@@ -73,12 +94,37 @@ public interface ZukiConfig {
             case YAML:
                 try (FileInputStream stream = new FileInputStream(file)) {
                     Map<String, Object> storage = new Yaml().load(stream);
+                    String database = (String) storage.get("database");
+                    String username = (String) storage.get("username");
+                    String password = (String) storage.get("password");
+                    Map<String, Object> poolStorage = (Map<String, Object>) storage.get("pool");
+                    PoolConfig pool = poolStorage == null ? PoolConfig.newBuilder() : PoolConfig.from(poolStorage);
+
+                    // replicas inherit missing params from primary.
+                    List<ZukiConfig> replicas = new ArrayList<>();
+                    List<Map<String, Object>> replicaStorage = (List<Map<String, Object>>) storage.get("replicas");
+                    if (replicaStorage != null) {
+                        for (Map<String, Object> replica : replicaStorage) {
+                            replicas.add(new SimpleZukiConfig(
+                                    (String) replica.get("address"),
+                                    (int) replica.getOrDefault("port", storage.get("port")),
+                                    (String) replica.getOrDefault("database", database),
+                                    (String) replica.getOrDefault("username", username),
+                                    (String) replica.getOrDefault("password", password),
+                                    Collections.emptyList(),
+                                    replica.containsKey("pool") ? PoolConfig.from((Map<String, Object>) replica.get("pool")) : pool
+                            ));
+                        }
+                    }
+
                     return new SimpleZukiConfig(
                             (String) storage.get("address"),
                             (int) storage.get("port"),
-                            (String) storage.get("database"),
-                            (String) storage.get("username"),
-                            (String) storage.get("password")
+                            database,
+                            username,
+                            password,
+                            replicas,
+                            pool
                     );
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
@@ -87,12 +133,35 @@ public interface ZukiConfig {
                 try (FileInputStream stream = new FileInputStream(file)) {
                     JSONTokener tokener = new JSONTokener(stream);
                     JSONObject object = new JSONObject(tokener);
+                    JSONObject poolObject = object.optJSONObject("pool");
+                    PoolConfig pool = poolObject == null ? PoolConfig.newBuilder() : PoolConfig.from(poolObject.toMap());
+
+                    // replicas inherit missing params from primary.
+                    List<ZukiConfig> replicas = new ArrayList<>();
+                    JSONArray replicaArray = object.optJSONArray("replicas");
+                    if (replicaArray != null) {
+                        for (int i = 0; i < replicaArray.length(); i++) {
+                            JSONObject replica = replicaArray.getJSONObject(i);
+                            replicas.add(new SimpleZukiConfig(
+                                    replica.optString("address"),
+                                    replica.optInt("port", object.optInt("port")),
+                                    replica.optString("database", object.optString("database")),
+                                    replica.optString("username", object.optString("username")),
+                                    replica.optString("password", object.optString("password")),
+                                    Collections.emptyList(),
+                                    replica.has("pool") ? PoolConfig.from(replica.getJSONObject("pool").toMap()) : pool
+                            ));
+                        }
+                    }
+
                     return new SimpleZukiConfig(
                             object.optString("address"),
                             object.optInt("port"),
                             object.optString("database"),
                             object.optString("username"),
-                            object.optString("password")
+                            object.optString("password"),
+                            replicas,
+                            pool
                     );
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
@@ -8,23 +8,86 @@ import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.bulk.BulkLoad;
+import me.twentybytes.zuki.api.bulk.BulkLoadResult;
+import me.twentybytes.zuki.api.callback.RowMapper;
 import me.twentybytes.zuki.api.callback.SelectCallback;
 import me.twentybytes.zuki.api.callback.UpdateCallback;
+import me.twentybytes.zuki.api.execution.AdmissionPolicy;
+import me.twentybytes.zuki.api.execution.BatchPolicy;
+import me.twentybytes.zuki.api.execution.CallSiteCapture;
+import me.twentybytes.zuki.api.execution.ExecutionMode;
+import me.twentybytes.zuki.api.metrics.SlowQueryPolicy;
+import me.twentybytes.zuki.api.metrics.ZukiMetrics;
+import me.twentybytes.zuki.api.pool.AdaptivePoolPolicy;
+import me.twentybytes.zuki.api.pool.ReloadPolicy;
+import me.twentybytes.zuki.api.pool.WarmupPolicy;
+import me.twentybytes.zuki.api.pool.WarmupReport;
+import me.twentybytes.zuki.api.request.ArgumentBuffer;
 import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import me.twentybytes.zuki.api.result.ColumnarResult;
+import me.twentybytes.zuki.api.routing.ReplicaPolicy;
+import me.twentybytes.zuki.api.script.Script;
+import me.twentybytes.zuki.api.script.ScriptResult;
+import me.twentybytes.zuki.api.transaction.TransactionCallback;
+import me.twentybytes.zuki.api.transaction.TransactionPolicy;
+import me.twentybytes.zuki.impl.bulk.BulkLoader;
+import me.twentybytes.zuki.impl.cache.ResultCache;
+import me.twentybytes.zuki.impl.cache.SingleFlight;
+import me.twentybytes.zuki.impl.execution.AdmissionControl;
+import me.twentybytes.zuki.impl.execution.CallSite;
+import me.twentybytes.zuki.impl.execution.Deadline;
+import me.twentybytes.zuki.impl.execution.HashedWheelTimer;
+import me.twentybytes.zuki.impl.execution.LimitedExecutor;
+import me.twentybytes.zuki.impl.execution.OrderedLanes;
+import me.twentybytes.zuki.impl.execution.RequestContext;
+import me.twentybytes.zuki.impl.execution.RowPublisher;
+import me.twentybytes.zuki.impl.execution.Threads;
+import me.twentybytes.zuki.impl.execution.UpdateBatcher;
+import me.twentybytes.zuki.impl.mapping.RowMappers;
+import me.twentybytes.zuki.impl.metrics.RequestTimer;
+import me.twentybytes.zuki.impl.metrics.SlowQueryLog;
+import me.twentybytes.zuki.impl.pool.PoolConfigs;
+import me.twentybytes.zuki.impl.pool.PoolController;
+import me.twentybytes.zuki.impl.pool.PoolDrain;
+import me.twentybytes.zuki.impl.pool.PoolWarmup;
+import me.twentybytes.zuki.impl.pool.PoolTracker;
+import me.twentybytes.zuki.impl.result.ColumnarRows;
+import me.twentybytes.zuki.impl.result.DetachedResults;
+import me.twentybytes.zuki.impl.routing.ReplicaSet;
+import me.twentybytes.zuki.impl.script.ScriptRunner;
+import me.twentybytes.zuki.impl.script.SqlScriptReader;
+import me.twentybytes.zuki.impl.transaction.TransactionRunner;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
+
+import javax.sql.rowset.CachedRowSet;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.sql.*;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
-import java.util.Scanner;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @Getter
@@ -32,13 +95,109 @@ import java.util.concurrent.TimeUnit;
 @FieldDefaults(level = AccessLevel.PROTECTED)
 public abstract class ZukiDatabase {
 
+    /**
+     * Callback which collects result of request future, it is never detached from request,
+     * so future is completed after result is collected.
+     */
+    @FunctionalInterface
+    protected interface ResultCallback extends SelectCallback {
+    }
+
     @Setter
     HikariConfig config;
-    HikariDataSource source;
+
+    /**
+     * Running primary pool, replaced atomically on {@link #reload(HikariConfig)}.
+     */
+    volatile HikariDataSource source;
+
+    /**
+     * Read replica pool configs, selects are routed to replicas if not empty.
+     */
+    List<HikariConfig> replicaConfigs = new ArrayList<>();
+    ReplicaPolicy replicaPolicy = ReplicaPolicy.newBuilder();
+
+    /**
+     * Running read replicas, null if replicas are not configured.
+     */
+    volatile ReplicaSet replicas;
+
+    /**
+     * Adaptive primary pool sizing policy, null if pool size is fixed.
+     */
+    AdaptivePoolPolicy adaptivePolicy;
+
+    /**
+     * Running pool size controller, null if adaptive sizing is disabled.
+     */
+    PoolController poolController;
+
+    /**
+     * Pool swap settings of {@link #reload(HikariConfig)}.
+     */
+    ReloadPolicy reloadPolicy = ReloadPolicy.newBuilder();
+
+    /**
+     * Pool warm-up settings, null if pool is not warmed up on start.
+     */
+    WarmupPolicy warmupPolicy;
+
+    /**
+     * Completed when started database is warmed up, see {@link #ready()}.
+     */
+    @Getter(AccessLevel.NONE)
+    CompletableFuture<WarmupReport> ready = new CompletableFuture<>();
     ScheduledExecutorService service = Executors.newScheduledThreadPool(3);
-    Deque<Request> queue = new ArrayDeque<>();
 
-    boolean lock;
+    /**
+     * Ordered lanes for queued requests.
+     */
+    OrderedLanes lanes = new OrderedLanes();
+
+    /**
+     * Timer of delayed batch flushes, so they are not delayed by busy request threads.
+     */
+    ScheduledExecutorService timer = Threads.timer("zuki-timer");
+
+    /**
+     * Timer of request deadlines, cheap for large amount of mostly cancelled timeouts.
+     * Created by first request with timeout, see {@link #deadlines()}.
+     */
+    volatile HashedWheelTimer deadlines;
+
+    /**
+     * Executor of timed out statements cancellation, which blocks until server kills query,
+     * of request timeout runnables and of replaced pools close.
+     */
+    ExecutorService cancellations = Executors.newCachedThreadPool(Threads.daemon("zuki-cancel"));
+
+    /**
+     * Pools replaced by {@link #reload(HikariConfig)} which are not drained yet, closed at once by {@link #close()}.
+     */
+    Set<AutoCloseable> draining = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Current requests executor, depends on {@link #executionMode}.
+     */
+    Executor executor = service;
+    ExecutorService perTaskExecutor;
+    ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+
+    /**
+     * Max requests running at the same time in {@link ExecutionMode#VIRTUAL_THREADS} mode.
+     * 0 or less means maximum connection pool size.
+     */
+    int maxConcurrency;
+
+    /**
+     * Admission control of requests, null if requests are not limited.
+     */
+    AdmissionControl admission;
+
+    /**
+     * Write-behind batcher of update requests, null if batching is disabled.
+     */
+    UpdateBatcher batcher;
 
     /**
      * ResultSet type.
@@ -53,16 +212,229 @@ public abstract class ZukiDatabase {
     int resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
 
     /**
-     * Create data source.
+     * Cache of select results, used by requests with {@link Request#cache(java.time.Duration)}.
+     */
+    ResultCache resultCache = new ResultCache(1024);
+
+    /**
+     * Executor of detached select callbacks, so application code never holds connection or request thread.
+     */
+    ExecutorService callbacks = Executors.newCachedThreadPool(Threads.daemon("zuki-callback"));
+    Executor callbackExecutor = callbacks;
+
+    /**
+     * True runs callbacks of all selects detached, see {@link Request#detached(boolean)}.
+     */
+    boolean detachedCallbacks;
+
+    /**
+     * Deduplication of identical concurrent selects, null if disabled.
+     */
+    SingleFlight singleFlight;
+
+    /**
+     * Slow query log of select and update statements, null if disabled.
+     */
+    SlowQueryLog slowQueries;
+
+    /**
+     * Single connection pools of slow query explains by explained database config, created on first
+     * explain, so explains never take connections of requests.
+     */
+    Map<HikariConfig, HikariDataSource> explainSources = new ConcurrentHashMap<>();
+
+    /**
+     * Requests metrics, {@link ZukiMetrics#NOOP} disables requests timing.
+     */
+    ZukiMetrics metrics = ZukiMetrics.NOOP;
+
+    /**
+     * Default fetch size of streamed selects. {@link Integer#MIN_VALUE} makes
+     * mysql driver stream rows one by one, positive values require {@code useCursorFetch=true}.
+     */
+    @Setter
+    int streamingFetchSize = Integer.MIN_VALUE;
+
+    /**
+     * Request call site capture policy, used for error logging.
+     */
+    @Setter
+    CallSiteCapture callSiteCapture = CallSiteCapture.LAZY;
+
+    /**
+     * Max captured call site frames in lazy and sampled modes.
+     */
+    @Setter
+    int callSiteDepth = 16;
+
+    /**
+     * Every n-th (on average) request captures call site in sampled mode.
+     */
+    @Setter
+    int callSiteSampleRate = 100;
+
+    /**
+     * Create data source, running database replaces its pools by {@link #reload(HikariConfig)}.
      *
      * @param config connection config.
      */
-    public ZukiDatabase start(@NotNull HikariConfig config) {
-        close();
-        source = new HikariDataSource(config);
+    public synchronized ZukiDatabase start(@NotNull HikariConfig config) {
+        // running requests must not be killed by restart.
+        if (source != null) {
+            return reload(config);
+        }
+
+        // executors are stopped by close.
+        if (timer.isShutdown()) {
+            timer = Threads.timer("zuki-timer");
+            if (batcher != null) {
+                batcher = new UpdateBatcher(batcher.getPolicy(), timer, command -> executor.execute(command), this::flushBatch);
+            }
+        }
+        if (cancellations.isShutdown()) {
+            cancellations = Executors.newCachedThreadPool(Threads.daemon("zuki-cancel"));
+        }
+        if (callbacks.isShutdown()) {
+            boolean own = callbackExecutor == callbacks;
+            callbacks = Executors.newCachedThreadPool(Threads.daemon("zuki-callback"));
+            if (own) {
+                callbackExecutor = callbacks;
+            }
+        }
+        if (slowQueries != null && slowQueries.isClosed()) {
+            slowQueryLog(slowQueries.getPolicy());
+        }
+
+        PoolTracker tracker = adaptivePolicy == null ? null : new PoolTracker(config.getMetricsTrackerFactory());
+        this.config = config;
+        source = new HikariDataSource(poolConfig(config, tracker));
+        poolController = createController(source, tracker);
+        executor = createExecutor();
+        replicas = createReplicas();
+
+        if (ready.isDone()) {
+            ready = new CompletableFuture<>();
+        }
+        if (warmupPolicy == null) {
+            ready.complete(WarmupReport.NONE);
+        } else {
+            CompletableFuture<WarmupReport> ready = this.ready;
+            PoolWarmup.start(source, warmupPolicy).whenComplete((report, throwable) -> {
+                if (throwable != null) {
+                    log.error("Pool warm-up failed", throwable);
+                    ready.completeExceptionally(throwable);
+                } else {
+                    ready.complete(report);
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Database is ready when pool is warmed up by {@link WarmupPolicy}, so traffic may be gated by this future.
+     * Database without warm-up is ready once started.
+     *
+     * @return future of warm-up report of current start.
+     */
+    public CompletableFuture<WarmupReport> ready() {
+        return ready;
+    }
+
+    /**
+     * Replaces running pools without interrupting requests. New primary pool is created and
+     * warmed up ({@link WarmupPolicy} if configured, otherwise until minimum idle connections
+     * are opened), replica pools are recreated from current replica configs, then new requests
+     * are switched to new pools and replaced pools are closed after running requests return
+     * their connections (see {@link ReloadPolicy}). If new primary pool can not be created
+     * or validated, running pools are kept. Not started database is just started.
+     *
+     * @param config new primary pool config.
+     * @throws java.sql.SQLException if new pool is not available.
+     */
+    @SneakyThrows
+    public synchronized ZukiDatabase reload(@NotNull HikariConfig config) {
+        if (source == null) {
+            return start(config);
+        }
+
+        PoolTracker tracker = adaptivePolicy == null ? null : new PoolTracker(config.getMetricsTrackerFactory());
+        HikariDataSource created = new HikariDataSource(poolConfig(config, tracker));
+        try {
+            PoolWarmup.run(created, warmupPolicy != null ? warmupPolicy
+                    : WarmupPolicy.newBuilder().timeout(Duration.ofMillis(reloadPolicy.getWarmupTimeout())));
+        } catch (Throwable throwable) {
+            created.close();
+            throw throwable;
+        }
+
+        HikariDataSource replaced = source;
+        ReplicaSet replacedReplicas = replicas;
+        if (poolController != null) {
+            poolController.close();
+        }
+
+        this.config = config;
+        source = created;
+        poolController = createController(created, tracker);
+        replicas = createReplicas();
+        if (executionMode != ExecutionMode.FIXED_POOL) {
+            executor = createExecutor();
+        }
+        log.info("Pool {} is replaced by {}", replaced.getPoolName(), created.getPoolName());
+        closeExplainSources();
+
+        List<HikariDataSource> drained = new ArrayList<>();
+        drained.add(replaced);
+        draining.add(replaced);
+        if (replacedReplicas != null) {
+            replacedReplicas.getReplicas().forEach(replica -> drained.add(replica.getSource()));
+            draining.add(replacedReplicas);
+        }
+        PoolDrain.drain(drained, reloadPolicy.getDrainTimeout(), timer, cancellations).whenComplete((ignored, throwable) -> {
+            draining.remove(replaced);
+            if (replacedReplicas != null) {
+                draining.remove(replacedReplicas);
+                replacedReplicas.close();
+            }
+            if (throwable != null) {
+                log.error("Replaced pools close failed", throwable);
+            }
+        });
         return this;
     }
 
+    /**
+     * @param config  pool config, it is not changed.
+     * @param tracker adaptive sizing tracker, null if pool size is fixed.
+     * @return        config which pool is created with.
+     */
+    protected HikariConfig poolConfig(@NotNull HikariConfig config, PoolTracker tracker) {
+        HikariConfig pool = config;
+        if (batcher != null && batcher.getPolicy().isRewriteInserts()) {
+            pool = PoolConfigs.copy(config);
+            pool.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+        HikariConfig instrumented = tracker == null ? null : PoolController.instrument(pool, adaptivePolicy, tracker);
+        return instrumented == null ? pool : instrumented;
+    }
+
+    /**
+     * @return size controller of pool, null if pool is not instrumented by tracker.
+     */
+    protected PoolController createController(@NotNull HikariDataSource source, PoolTracker tracker) {
+        return tracker != null && source.getMetricsTrackerFactory() == tracker
+                ? new PoolController(adaptivePolicy, source, tracker, timer) : null;
+    }
+
+    /**
+     * @return replica pools of current replica configs, null if replicas are not configured.
+     */
+    protected ReplicaSet createReplicas() {
+        return replicaConfigs.isEmpty() ? null
+                : new ReplicaSet(replicaConfigs, replicaPolicy);
+    }
+
     /**
      * Create data source.
      */
@@ -71,224 +443,1182 @@ public abstract class ZukiDatabase {
     }
 
     /**
-     * Close current data source if exists.
+     * Close current data source if exists. Pools replaced by reload and not drained yet are closed
+     * at once, internal timers and executors are stopped and created again by next start.
      */
-    public ZukiDatabase close() {
+    public synchronized ZukiDatabase close() {
+        if (poolController != null) {
+            poolController.close();
+            poolController = null;
+        }
         if (source != null) {
+            // nothing must be lost on shutdown.
+            if (batcher != null) {
+                batcher.flush();
+            }
             source.close();
             source = null;
         }
+        if (replicas != null) {
+            replicas.close();
+            replicas = null;
+        }
+        // pending explains are finished before their pools are closed.
+        if (slowQueries != null) {
+            slowQueries.close();
+        }
+        closeExplainSources();
+        for (AutoCloseable replaced : draining) {
+            try {
+                replaced.close();
+            } catch (Exception exception) {
+                log.warn("Replaced pool close failed. Message: " + exception.getMessage());
+            }
+        }
+        draining.clear();
+
+        if (deadlines != null) {
+            deadlines.close();
+            deadlines = null;
+        }
+        timer.shutdownNow();
+        // running statement cancellations and detached callbacks are finished.
+        cancellations.shutdown();
+        callbacks.shutdown();
+        if (perTaskExecutor != null) {
+            perTaskExecutor.shutdown();
+            perTaskExecutor = null;
+        }
         return this;
     }
 
     /**
-     * @return database connection.
+     * Closes explain pools, next explain creates them again.
      */
-    @SneakyThrows
-    public Connection connection() {
-        return source.getConnection();
+    protected void closeExplainSources() {
+        for (HikariConfig config : explainSources.keySet()) {
+            HikariDataSource source = explainSources.remove(config);
+            if (source != null) {
+                source.close();
+            }
+        }
     }
 
+    /**
+     * @return deadline timer, created on first use.
+     */
+    protected HashedWheelTimer deadlines() {
+        HashedWheelTimer deadlines = this.deadlines;
+        if (deadlines == null) {
+            synchronized (this) {
+                deadlines = this.deadlines;
+                if (deadlines == null) {
+                    deadlines = new HashedWheelTimer("zuki-deadline", 10, TimeUnit.MILLISECONDS, 512);
+                    this.deadlines = deadlines;
+                }
+            }
+        }
+        return deadlines;
+    }
 
     /**
-     * Executes all queries from file.
+     * Changes requests execution mode.
      *
-     * @param file executing file.
+     * @param mode           execution mode.
+     * @param maxConcurrency max requests running at the same time in {@link ExecutionMode#VIRTUAL_THREADS} mode,
+     *                       0 or less means maximum connection pool size (upper bound of adaptive pool).
      */
-    @SneakyThrows
-    public ZukiDatabase file(@NotNull File file) {
-        return stream(new FileInputStream(file));
+    public ZukiDatabase executionMode(@NotNull ExecutionMode mode, int maxConcurrency) {
+        this.executionMode = mode;
+        this.maxConcurrency = maxConcurrency;
+        if (source != null) {
+            executor = createExecutor();
+        }
+        return this;
     }
 
     /**
-     * Executes all queries from input stream using
-     * splitter ';'
+     * Changes requests execution mode, concurrency is limited by connection pool size.
      *
-     * @param stream input stream.
+     * @param mode execution mode.
      */
-    public ZukiDatabase stream(@NotNull InputStream stream) {
-        // real stacktrace
-        StackTraceElement[] sourceStackTrace = Thread.currentThread().getStackTrace();
-        StackTraceElement[] stackTrace = Arrays.copyOfRange(sourceStackTrace, 2,
-                sourceStackTrace.length);
-
-        service.execute(() -> {
-            Statement statement = null;
-            try (Connection connection = connection(); Scanner scanner = new Scanner(stream).useDelimiter(";")) {
-                while (scanner.hasNext()) {
-                    String query = scanner.next().trim();
-
-                    if (!query.isEmpty()) {
-                        statement = connection.createStatement();
-                        statement.execute(query);
-                        if (statement.getResultSet() != null) {
-                            statement.getResultSet().close();
-                        }
-                        statement.close();
-                    }
-                }
-            } catch (Throwable throwable) {
-                if (statement != null) {
-                    try {
-                        statement.close();
-                    } catch (SQLException exception) {
-                        log.error("Unclosed statement... Message: " + exception.getMessage());
-                    }
-                }
+    public ZukiDatabase executionMode(@NotNull ExecutionMode mode) {
+        return executionMode(mode, 0);
+    }
 
-                log.error("Throwed SQL exception on stream method.");
-                log.error("Message: " + throwable.getMessage());
-                log.error("Stacktrace:");
-                for (StackTraceElement traceElement : stackTrace) {
-                    log.error("\tat " + traceElement);
-                }
-            }
-        });
+    /**
+     * Enables write-behind batching: async, not queued update requests with arguments
+     * and identical bodies are executed as one jdbc batch.
+     *
+     * @param policy batching policy, null disables batching.
+     */
+    public ZukiDatabase batching(BatchPolicy policy) {
+        if (batcher != null) {
+            batcher.flush();
+        }
+        batcher = policy == null ? null : new UpdateBatcher(policy, timer, command -> executor.execute(command), this::flushBatch);
         return this;
     }
 
     /**
-     * Use for update queries... (UPDATE, INSERT...)
+     * Enables admission control: only limited count of requests runs at the same time,
+     * others wait in bounded queue ordered by {@link Request#priority(me.twentybytes.zuki.api.request.Priority)}.
      *
-     * @param query    executing mysql command.
-     * @param callback query callback.
-     * @param args     arguments for prepared statement.
-     * @return {@link CompletableFuture<Void>} result set.
+     * @param policy admission policy, null disables admission control.
      */
-    protected CompletableFuture<Void> update(@NotNull @Language("SQL") String query, boolean queued, UpdateCallback callback, Object... args) {
-        // real stacktrace
-        StackTraceElement[] sourceStackTrace = Thread.currentThread().getStackTrace();
-        StackTraceElement[] stackTrace = Arrays.copyOfRange(sourceStackTrace, 2,
-                sourceStackTrace.length);
-
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection connection = connection(); Statement statement = args.length == 0 ? connection.createStatement() : connection.prepareStatement(query)) {
-                if (args.length == 0) {
-                    statement.execute(query);
-                } else {
-                    PreparedStatement prepared = (PreparedStatement) statement;
-                    for (int i = 0; i < args.length; i++) {
-                        prepared.setObject(i + 1, args[i]);
-                    }
-
-                    prepared.execute();
-                }
-
-                if (callback != null) {
-                    callback.run(statement.getUpdateCount());
-                }
-
-                if (queued) {
-                    lock = false;
-                    if (!queue.isEmpty()) {
-                        execute(queue.poll());
-                    }
-                }
-            } catch (SQLException exception) {
-                log.error("Throwed SQL exception on update method. Stacktrace:");
-                log.error("Message: " + exception.getMessage());
-                log.error("Stacktrace: ");
-                for (StackTraceElement traceElement : stackTrace) {
-                    log.error("\tat " + traceElement);
-                }
-            }
-            return null;
-        }, service);
+    public ZukiDatabase admission(AdmissionPolicy policy) {
+        admission = policy == null ? null : new AdmissionControl(policy, command -> executor.execute(command));
+        return this;
     }
 
     /**
-     * Use for non-update queries... (SELECT)
+     * Configures read replicas, applied on database start. Select requests are
+     * routed to healthy replicas unless pinned by {@link Request#primary(boolean)}.
      *
-     * @param query    executing mysql command.
-     * @param callback query callback.
-     * @param args     arguments for prepared statement.
-     * @return {@link CompletableFuture<Void>} result set.
+     * @param configs replica pool configs, empty list disables routing.
+     * @param policy  routing policy.
      */
-    @SneakyThrows
-    protected CompletableFuture<Void> select(@NotNull @Language("SQL") String query, boolean queued, SelectCallback callback, Object... args) {
-        // real stacktrace
-        StackTraceElement[] sourceStackTrace = Thread.currentThread().getStackTrace();
-        StackTraceElement[] stackTrace = Arrays.copyOfRange(sourceStackTrace, 2,
-                sourceStackTrace.length);
-
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection connection = connection(); Statement statement = args.length == 0 ? connection.createStatement(resultSetType, resultSetConcurrency) :
-                    connection.prepareStatement(query, resultSetType, resultSetConcurrency)) {
+    public ZukiDatabase replicas(@NotNull List<HikariConfig> configs, @NotNull ReplicaPolicy policy) {
+        this.replicaConfigs = new ArrayList<>(configs);
+        this.replicaPolicy = policy;
+        return this;
+    }
 
-                if (args.length == 0) {
-                    statement.execute(query);
-                } else {
-                    PreparedStatement prepared = (PreparedStatement) statement;
-                    for (int i = 0; i < args.length; i++) {
-                        prepared.setObject(i + 1, args[i]);
-                    }
+    /**
+     * Configures read replicas with default routing policy, applied on database start.
+     *
+     * @param configs replica pool configs, empty list disables routing.
+     */
+    public ZukiDatabase replicas(@NotNull List<HikariConfig> configs) {
+        return replicas(configs, replicaPolicy);
+    }
 
-                    prepared.execute();
-                }
+    /**
+     * Enables adaptive sizing of primary pool, applied on database start.
+     * Pool is resized at runtime within policy bounds by connection acquire waits and concurrency.
+     *
+     * @param policy sizing policy, null keeps pool size fixed.
+     */
+    public ZukiDatabase adaptivePool(AdaptivePoolPolicy policy) {
+        this.adaptivePolicy = policy;
+        return this;
+    }
 
-                try (ResultSet set = statement.getResultSet()) {
-                    if (callback != null) {
-                        callback.run(set);
-                    }
+    /**
+     * Enables pool warm-up on start and reload: connections are opened in parallel
+     * and hot queries are prepared on each of them, see {@link #ready()}.
+     *
+     * @param policy warm-up settings, null disables warm-up.
+     */
+    public ZukiDatabase warmup(WarmupPolicy policy) {
+        this.warmupPolicy = policy;
+        return this;
+    }
 
-                    if (queued) {
-                        lock = false;
-                        if (!queue.isEmpty()) {
-                            execute(queue.poll());
-                        }
-                    }
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
-                }
-            } catch (SQLException exception) {
-                log.error("Throwed SQL exception on select method. Stacktrace:");
-                log.error("Message: " + exception.getMessage());
-                log.error("Stacktrace:");
-                for (StackTraceElement traceElement : stackTrace) {
-                    log.error("\tat " + traceElement);
-                }
-            }
-            return null;
-        }, service);
+    /**
+     * @param policy pool swap settings of {@link #reload(HikariConfig)}.
+     */
+    public ZukiDatabase reloadPolicy(@NotNull ReloadPolicy policy) {
+        this.reloadPolicy = policy;
+        return this;
+    }
 
+    /**
+     * @param metrics requests metrics, {@link ZukiMetrics#NOOP} disables requests timing.
+     */
+    public ZukiDatabase metrics(@NotNull ZukiMetrics metrics) {
+        this.metrics = metrics;
+        return this;
     }
 
+    /**
+     * Enables slow query log: select and update statements running longer than threshold are
+     * recorded with redacted arguments, timings and call site, see {@link #getSlowQueries()}.
+     * Sampled ones are explained on background connection.
+     *
+     * @param policy slow query log settings, null disables slow query log.
+     * @throws IOException if log file can not be opened.
+     */
     @SneakyThrows
-    public ZukiDatabase execute(Request request) {
+    public ZukiDatabase slowQueryLog(SlowQueryPolicy policy) {
+        SlowQueryLog previous = slowQueries;
+        slowQueries = policy == null ? null : new SlowQueryLog(policy, this::explain);
+        if (previous != null) {
+            previous.close();
+        }
+        return this;
+    }
+
+    /**
+     * @param maxSize max cached results count, 0 disables caching.
+     */
+    public ZukiDatabase resultCache(int maxSize) {
+        resultCache.setMaxSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Enables single-flight selects: identical (body and arguments) concurrent select requests
+     * share one execution, every waiting request receives own cursor over the same detached rows.
+     * Shared selects are always read into memory, requests with timeout or fetch size are not shared.
+     *
+     * @param enabled single-flight state.
+     */
+    public ZukiDatabase singleFlight(boolean enabled) {
+        singleFlight = enabled ? (singleFlight != null ? singleFlight : new SingleFlight()) : null;
+        return this;
+    }
+
+    /**
+     * Detached selects read result into memory and release connection and request thread
+     * before callback, callback runs on callback executor (sync requests run it on caller thread).
+     * Future of async detached request is completed once rows are fetched, not after callback.
+     * Rows are kept as {@link CachedRowSet}, which boxes every value, so large results should
+     * rather be read by {@link #selectColumns(Request, int, long)}.
+     * Streamed selects (with fetch size) are never detached.
+     *
+     * @param enabled true detaches callbacks of all selects, requests may opt in with {@link Request#detached(boolean)}.
+     */
+    public ZukiDatabase detachedCallbacks(boolean enabled) {
+        this.detachedCallbacks = enabled;
+        return this;
+    }
+
+    /**
+     * @param executor executor of detached select callbacks.
+     */
+    public ZukiDatabase callbackExecutor(@NotNull Executor executor) {
+        this.callbackExecutor = executor;
+        return this;
+    }
+
+    protected Executor createExecutor() {
+        if (executionMode == ExecutionMode.FIXED_POOL) {
+            return service;
+        }
+
+        if (perTaskExecutor == null) {
+            perTaskExecutor = Threads.perTask();
+        }
+
+        // adaptive pool must see waiting requests to grow.
+        int limit = maxConcurrency > 0 ? maxConcurrency
+                : poolController != null ? adaptivePolicy.getMaxSize() : source.getMaximumPoolSize();
+        return new LimitedExecutor(perTaskExecutor, limit);
+    }
+
+    /**
+     * @return database connection.
+     */
+    @SneakyThrows
+    public Connection connection() {
+        return primaryConnection();
+    }
+
+    /**
+     * @param primary true pins connection to primary database.
+     * @return        read connection of healthy replica or primary connection.
+     */
+    public Connection readConnection(boolean primary) throws SQLException {
+        ReplicaSet replicas = this.replicas;
+        if (primary || replicas == null) {
+            return primaryConnection();
+        }
+        return replicas.connection(this::primaryConnection);
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        HikariDataSource source = this.source;
+        try {
+            return source.getConnection();
+        } catch (SQLException exception) {
+            // pool was replaced and closed between read and acquire.
+            HikariDataSource current = this.source;
+            if (current != null && current != source && source.isClosed()) {
+                return current.getConnection();
+            }
+            throw exception;
+        }
+    }
+
+
+    /**
+     * Executes all queries from file.
+     *
+     * @param file executing file.
+     */
+    public ZukiDatabase file(@NotNull File file) {
+        script(Script.newBuilder(file.toPath()));
+        return this;
+    }
+
+    /**
+     * Executes all queries from input stream,
+     * see {@link SqlScriptReader} for splitting rules.
+     *
+     * @param stream input stream.
+     */
+    public ZukiDatabase stream(@NotNull InputStream stream) {
+        script(Script.newBuilder(stream));
+        return this;
+    }
+
+    /**
+     * Executes sql script on single connection.
+     *
+     * @param script script specification.
+     * @return {@link CompletableFuture} with result, completed exceptionally if script fails.
+     */
+    public CompletableFuture<ScriptResult> script(@NotNull Script script) {
+        // real stacktrace
+        CallSite callSite = captureCallSite();
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = connection()) {
+                return ScriptRunner.run(connection, script);
+            } catch (SQLException | IOException exception) {
+                logError("script", exception, callSite);
+                throw new CompletionException(exception);
+            }
+        }, executor);
+    }
+
+    /**
+     * Use for update queries... (UPDATE, INSERT...)
+     *
+     * @param query    executing mysql command.
+     * @param callback query callback.
+     * @param context  request execution context.
+     * @param args     arguments for prepared statement.
+     * @return {@link CompletableFuture<Void>} completed exceptionally if query fails.
+     */
+    protected CompletableFuture<Void> update(@NotNull @Language("SQL") String query, UpdateCallback callback, RequestContext context, Object... args) {
+        RequestTimer requestTimer = context.getTimer();
+        Deadline deadline = context.getDeadline();
+        return CompletableFuture.supplyAsync(() -> {
+            requestTimer.started();
+            long startedAt = System.nanoTime();
+            long acquiredAt = 0;
+            long executedAt = 0;
+            SQLException failure = null;
+            try {
+                deadline.check();
+                try (Connection connection = connection()) {
+                    requestTimer.acquired();
+                    acquiredAt = System.nanoTime();
+                    try (Statement statement = args.length == 0 ? connection.createStatement() : connection.prepareStatement(query)) {
+                        deadline.attach(statement);
+                        try {
+                            if (args.length == 0) {
+                                statement.execute(query);
+                            } else {
+                                PreparedStatement prepared = (PreparedStatement) statement;
+                                bind(prepared, args);
+                                prepared.execute();
+                            }
+                        } finally {
+                            deadline.detach();
+                        }
+
+                        requestTimer.executed();
+                        executedAt = System.nanoTime();
+                        if (callback != null) {
+                            callback.run(statement.getUpdateCount());
+                        }
+                    }
+                }
+            } catch (SQLException exception) {
+                failure = exception;
+                // timed out request is already completed, its cancellation is not an error.
+                if (!deadline.isExpired()) {
+                    logError("update", exception, context.getCallSite());
+                }
+                throw new CompletionException(exception);
+            } finally {
+                recordSlow(RequestType.UPDATE, query, args, context, true, startedAt, acquiredAt, executedAt, failure);
+            }
+            return null;
+        }, context.getExecutor());
+    }
+
+    /**
+     * Use for non-update queries... (SELECT)
+     *
+     * @param query    executing mysql command.
+     * @param callback query callback.
+     * @param context  request execution context.
+     * @param args     arguments for prepared statement.
+     * @return {@link CompletableFuture<Void>} completed exceptionally if query or callback fails.
+     */
+    @SneakyThrows
+    protected CompletableFuture<Void> select(@NotNull @Language("SQL") String query, SelectCallback callback, RequestContext context, Object... args) {
+        RequestTimer requestTimer = context.getTimer();
+        Deadline deadline = context.getDeadline();
+        return CompletableFuture.supplyAsync(() -> {
+            requestTimer.started();
+            long startedAt = System.nanoTime();
+            long acquiredAt = 0;
+            long executedAt = 0;
+            SQLException failure = null;
+            try {
+                deadline.check();
+                try (Connection connection = readConnection(context.isPrimary())) {
+                    requestTimer.acquired();
+                    acquiredAt = System.nanoTime();
+                    try (Statement statement = args.length == 0 ? connection.createStatement(resultSetType, resultSetConcurrency) :
+                            connection.prepareStatement(query, resultSetType, resultSetConcurrency)) {
+
+                        if (context.getFetchSize() != 0) {
+                            statement.setFetchSize(context.getFetchSize());
+                        }
+                        deadline.attach(statement);
+                        try {
+                            if (args.length == 0) {
+                                statement.execute(query);
+                            } else {
+                                PreparedStatement prepared = (PreparedStatement) statement;
+                                bind(prepared, args);
+                                prepared.execute();
+                            }
+
+                            requestTimer.executed();
+                            executedAt = System.nanoTime();
+                            try (ResultSet set = statement.getResultSet()) {
+                                if (callback != null) {
+                                    callback.run(set);
+                                }
+                            } catch (Throwable throwable) {
+                                if (!deadline.isExpired()) {
+                                    throwable.printStackTrace();
+                                }
+                                throw new CompletionException(throwable);
+                            }
+                        } finally {
+                            deadline.detach();
+                        }
+                    }
+                }
+            } catch (SQLException exception) {
+                failure = exception;
+                // timed out request is already completed, its cancellation is not an error.
+                if (!deadline.isExpired()) {
+                    logError("select", exception, context.getCallSite());
+                }
+                throw new CompletionException(exception);
+            } finally {
+                recordSlow(RequestType.SELECT, query, args, context, context.isPrimary(), startedAt, acquiredAt, executedAt, failure);
+            }
+            return null;
+        }, context.getExecutor());
+
+    }
+
+    /**
+     * Streams select results with backpressure: rows are read from database only
+     * when subscriber requests them, so whole result is never buffered in memory.
+     * Every subscription executes query on its own connection, which is closed on
+     * completion, cancel or error.
+     *
+     * @param request select request, {@link Request#fetchSize(int)} overrides {@link #streamingFetchSize}.
+     * @param mapper  row mapper.
+     * @return        rows publisher.
+     */
+    public <T> Flow.Publisher<T> publish(@NotNull Request request, @NotNull RowMapper<T> mapper) {
         if (request.getBody() == null || request.getBody().isEmpty()) {
             throw new IllegalStateException("Illegal state: request body is empty or null");
         }
 
-        if (request.isQueue()) {
-            if (lock) {
-                queue.add(request);
-                return this;
-            } else {
-                lock = true;
+        String query = request.getBody();
+        Object[] args = request.getArgs();
+        int fetchSize = request.getFetchSize() != 0 ? request.getFetchSize() : streamingFetchSize;
+
+        boolean primary = request.isPrimary();
+        return new RowPublisher<>(command -> executor.execute(command), () -> readConnection(primary), connection -> {
+            PreparedStatement prepared = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                prepared.setFetchSize(fetchSize);
+                bind(prepared, args);
+            } catch (SQLException exception) {
+                prepared.close();
+                throw exception;
             }
+            return prepared;
+        }, mapper);
+    }
+
+    /**
+     * Maps select results to list of typed objects. Mapper for records, pojo
+     * (no-args constructor with setters or fields) or single column value types
+     * is compiled once per class and result columns.
+     *
+     * @param request select request, its callback is ignored.
+     * @param type    row class.
+     * @return        future of mapped rows, completed exceptionally if query fails.
+     */
+    public <T> CompletableFuture<List<T>> select(@NotNull Request request, @NotNull Class<T> type) {
+        if (request.getRequestType() != RequestType.SELECT) {
+            throw new IllegalArgumentException("Typed select requires SELECT request");
         }
 
-        final CompletableFuture<Void> future;
-        switch (request.getRequestType()) {
-            case UPDATE -> {
-                future = update(request.getBody(), request.isQueue(), (UpdateCallback) request.getCallback(), request.getArgs());
+        List<T> rows = new ArrayList<>();
+        Request typed = request.copy().callback((ResultCallback) set -> {
+            RowMapper<T> mapper = RowMappers.of(type, set.getMetaData());
+            while (set.next()) {
+                rows.add(mapper.map(set));
             }
-            default -> future = select(request.getBody(), request.isQueue(), (SelectCallback) request.getCallback(), request.getArgs());
+        });
+        return submit(typed).thenApply(ignored -> rows);
+    }
+
+    /**
+     * Reads select result into columnar chunks of primitive arrays, see {@link ColumnarResult}.
+     * Rows are streamed from driver ({@link #streamingFetchSize} unless request has own fetch size),
+     * so memory is bounded by stored columns.
+     *
+     * @param request   select request without cache, its callback is ignored.
+     * @param chunkRows rows per column chunk.
+     * @param maxRows   max rows count, request fails if result is larger, 0 or less means no limit.
+     * @return          future of columnar result.
+     */
+    public CompletableFuture<ColumnarResult> selectColumns(@NotNull Request request, int chunkRows, long maxRows) {
+        if (request.getRequestType() != RequestType.SELECT) {
+            throw new IllegalArgumentException("Columnar select requires SELECT request");
+        }
+        if (request.getCacheTtl() > 0) {
+            throw new IllegalArgumentException("Columnar select can't be cached");
         }
 
-        if (request.getTimeoutRunnable() != null) {
-            service.schedule(() -> {
-                if (!future.isDone()) {
-                    request.getTimeoutRunnable().run();
-                }
-            }, request.getTimeout(), TimeUnit.MILLISECONDS);
+        Request columnar = request.copy();
+        if (columnar.getFetchSize() == 0) {
+            columnar.fetchSize(streamingFetchSize);
+        }
+
+        ColumnarResult[] result = new ColumnarResult[1];
+        columnar.callback((ResultCallback) set -> result[0] = ColumnarRows.read(set, chunkRows, maxRows));
+        return submit(columnar).thenApply(ignored -> result[0]);
+    }
+
+    /**
+     * Reads select result into columnar chunks of 4096 rows without rows limit.
+     *
+     * @param request select request without cache, its callback is ignored.
+     * @return        future of columnar result.
+     */
+    public CompletableFuture<ColumnarResult> selectColumns(@NotNull Request request) {
+        return selectColumns(request, 4096, 0);
+    }
+
+    /**
+     * Loads large amount of rows by {@code LOAD DATA LOCAL INFILE}, rows are encoded
+     * on the fly without buffering. Falls back to chunked multi-row inserts
+     * when local infile is disabled.
+     *
+     * @param load bulk load specification.
+     * @return     future of load result (rows count and speed).
+     */
+    public CompletableFuture<BulkLoadResult> load(@NotNull BulkLoad load) {
+        if (load.getRows() == null || load.getColumns().length == 0) {
+            throw new IllegalStateException("Illegal state: bulk load rows or columns are not specified");
+        }
+
+        // real stacktrace
+        CallSite callSite = captureCallSite();
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = connection()) {
+                return BulkLoader.load(connection, load);
+            } catch (SQLException exception) {
+                BulkLoader.cancel(load);
+                logError("load", exception, callSite);
+                throw new CompletionException(exception);
+            }
+        }, executor);
+    }
+
+    /**
+     * Executes transaction on one connection. Transaction is committed if body
+     * completes normally and rolled back otherwise, deadlocked or serialization-failed
+     * transaction is retried by policy. Transaction passes admission control, deadline
+     * and metrics as update request (see {@link TransactionPolicy}).
+     *
+     * @param policy transaction policy.
+     * @param body   transaction body, called on request executor.
+     * @return       future of body result, completed exceptionally if transaction fails.
+     */
+    public <T> CompletableFuture<T> transaction(@NotNull TransactionPolicy policy, @NotNull TransactionCallback<T> body) {
+        return transaction(policy, body, false);
+    }
+
+    /**
+     * Executes transaction with default policy, see {@link #transaction(TransactionPolicy, TransactionCallback)}.
+     */
+    public <T> CompletableFuture<T> transaction(@NotNull TransactionCallback<T> body) {
+        return transaction(TransactionPolicy.newBuilder(), body);
+    }
+
+    /**
+     * Executes transaction on caller thread, see {@link #transaction(TransactionPolicy, TransactionCallback)}.
+     *
+     * @return body result.
+     */
+    @SneakyThrows
+    public <T> T transactionSync(@NotNull TransactionPolicy policy, @NotNull TransactionCallback<T> body) {
+        try {
+            return transaction(policy, body, true).join();
+        } catch (CompletionException exception) {
+            throw exception.getCause();
         }
+    }
+
+    /**
+     * Executes transaction with default policy on caller thread.
+     *
+     * @return body result.
+     */
+    public <T> T transactionSync(@NotNull TransactionCallback<T> body) {
+        return transactionSync(TransactionPolicy.newBuilder(), body);
+    }
+
+    private <T> CompletableFuture<T> transaction(TransactionPolicy policy, TransactionCallback<T> body, boolean sync) {
+        // real stacktrace
+        CallSite callSite = captureCallSite();
+        Request request = Request.newBuilder(RequestType.UPDATE).label(policy.getLabel()).priority(policy.getPriority())
+                .timeout(null, policy.getTimeout()).sync(sync);
+
+        // result is taken from request future, so passed deadline wins over late commit.
+        AtomicReference<T> result = new AtomicReference<>();
+        return schedule(request, callSite, context -> runTransaction(policy, body, context).thenAccept(result::set))
+                .thenApply(ignored -> result.get());
+    }
+
+    private <T> CompletableFuture<T> runTransaction(TransactionPolicy policy, TransactionCallback<T> body, RequestContext context) {
+        RequestTimer requestTimer = context.getTimer();
+        Deadline deadline = context.getDeadline();
+        return CompletableFuture.supplyAsync(() -> {
+            requestTimer.started();
+            // retries are run on request executor, also retries of sync transaction.
+            return TransactionRunner.run(() -> {
+                Connection connection = connection();
+                requestTimer.acquired();
+                return connection;
+            }, this::bind, deadline, policy, body, timer, executor);
+        }, context.getExecutor()).thenCompose(Function.identity()).whenComplete((ignored, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            // timed out transaction is already completed, its cancellation is not an error.
+            if (cause instanceof SQLException exception && !deadline.isExpired()) {
+                logError("transaction", exception, context.getCallSite());
+            }
+        });
+    }
 
+    @SneakyThrows
+    public ZukiDatabase execute(Request request) {
+        CompletableFuture<Void> future = submit(request);
         if (request.isSync()) {
-            future.get();
+            try {
+                future.get();
+            } catch (ExecutionException exception) {
+                // sql errors are already logged with request call site.
+                if (!(exception.getCause() instanceof SQLException)) {
+                    throw exception.getCause();
+                }
+            }
+        } else if (admission != null) {
+            // nobody waits for async request, so its rejection is logged here.
+            future.whenComplete((ignored, throwable) -> {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (cause instanceof RejectedExecutionException) {
+                    log.warn("Request '{}' is not executed: {}", request.getLabel() != null ? request.getLabel() : request.getBody(), cause.getMessage());
+                }
+            });
         }
 
         return this;
     }
 
+    /**
+     * Starts request execution, sync flag of request is ignored.
+     *
+     * @param request executing request.
+     * @return        future completed when request is done, completed exceptionally if it fails.
+     */
+    public CompletableFuture<Void> submit(@NotNull Request request) {
+        if (request.getBody() == null || request.getBody().isEmpty()) {
+            throw new IllegalStateException("Illegal state: request body is empty or null");
+        }
+
+        // real stacktrace
+        return schedule(request, captureCallSite(), context -> dispatch(request, context));
+    }
+
+    /**
+     * Runs request execution through ordering lanes, admission control, deadline and metrics.
+     *
+     * @param request  request with execution settings.
+     * @param callSite request call site.
+     * @param body     starts execution in given context.
+     * @return         future completed when execution is done or deadline passes.
+     */
+    protected CompletableFuture<Void> schedule(Request request, CallSite callSite, Function<RequestContext, CompletableFuture<Void>> body) {
+        RequestTimer requestTimer = RequestTimer.start(metrics, request.label(), request.getRequestType());
+        Deadline deadline = request.getTimeout() > 0 ? new Deadline() : Deadline.NONE;
+
+        // sync requests run on caller thread, queued ones keep lane order on executor.
+        Executor requestExecutor = request.isSync() && !request.isQueue() ? RequestContext.DIRECT : executor;
+        Function<Executor, CompletableFuture<Void>> begin = runOn -> body.apply(
+                new RequestContext(callSite, requestTimer, deadline, runOn, request.isPrimary(), request.getFetchSize()));
+
+        // admission is taken inside of lane, so waiting requests do not break lane order.
+        AdmissionControl admission = this.admission;
+        Supplier<CompletableFuture<Void>> admitted = admission == null
+                ? () -> begin.apply(requestExecutor)
+                : () -> admission.submit(request.getPriority(), requestExecutor, begin);
+        Supplier<CompletableFuture<Void>> start = request.isQueue()
+                ? () -> lanes.submit(request.getOrderingKey(), admitted)
+                : admitted;
+
+        CompletableFuture<Void> future = deadline == Deadline.NONE ? start.get() : withDeadline(request, deadline, start);
+        return requestTimer == RequestTimer.NONE
+                ? future
+                : future.whenComplete((ignored, throwable) -> requestTimer.completed(throwable));
+    }
+
+    /**
+     * Schedules deadline before request is started, so sync request running
+     * on caller thread is cancelled too.
+     *
+     * @param request  request with timeout.
+     * @param deadline request deadline.
+     * @param start    starts request execution.
+     * @return         future completed by execution or with {@link TimeoutException} when deadline passes.
+     */
+    protected CompletableFuture<Void> withDeadline(Request request, Deadline deadline, Supplier<CompletableFuture<Void>> start) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        HashedWheelTimer.Timeout timeout = deadlines().schedule(() -> {
+            String name = request.getBody() != null ? request.getBody() : request.label();
+            if (future.completeExceptionally(new TimeoutException("Request timed out after " + request.getTimeout() + "ms: " + name))) {
+                deadline.expire(cancellations);
+                // request executor may be saturated by the very requests which time out.
+                if (request.getTimeoutRunnable() != null) {
+                    cancellations.execute(request.getTimeoutRunnable());
+                }
+            }
+        }, request.getTimeout(), TimeUnit.MILLISECONDS);
+
+        start.get().whenComplete((ignored, throwable) -> {
+            timeout.cancel();
+            if (throwable != null) {
+                future.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            } else {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Starts request execution without ordering.
+     *
+     * @param request executing request.
+     * @param context request execution context.
+     * @return        future completed when request is done.
+     */
+    protected CompletableFuture<Void> dispatch(Request request, RequestContext context) {
+        return switch (request.getRequestType()) {
+            case UPDATE -> invalidating(request, isBatchable(request)
+                    ? batcher.add(request.getBody(), new UpdateBatcher.Entry(request.getArgs(), (UpdateCallback) request.getCallback(), context.getCallSite(), context.getTimer()))
+                    : update(request.getBody(), (UpdateCallback) request.getCallback(), context, request.getArgs()));
+            default -> request.getCacheTtl() > 0
+                    ? cachedSelect(request, context)
+                    : isShareable(request) || isDetached(request)
+                    ? sharedSelect(request, context, null)
+                    : select(request.getBody(), (SelectCallback) request.getCallback(), context, request.getArgs());
+        };
+    }
+
+    /**
+     * Select with result caching. Cached rows are detached, so callback receives
+     * own cursor over shared rows.
+     *
+     * @param request select request with cache ttl.
+     * @param context request execution context.
+     * @return        future completed when callback is done.
+     */
+    protected CompletableFuture<Void> cachedSelect(Request request, RequestContext context) {
+        CachedRowSet cached = resultCache.get(request.getBody(), request.getArgs());
+        if (cached != null) {
+            RequestTimer requestTimer = context.getTimer();
+            if (isTracked(request, context)) {
+                requestTimer.detach();
+                requestTimer.started();
+                requestTimer.acquired();
+                requestTimer.executed();
+                runDetached((SelectCallback) request.getCallback(), cached, context);
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> {
+                // cache hit has neither connection nor execution.
+                requestTimer.started();
+                requestTimer.acquired();
+                requestTimer.executed();
+                runShared((SelectCallback) request.getCallback(), cached);
+            }, callbackExecutor(request, context));
+        }
+
+        long generation = resultCache.generation();
+        return sharedSelect(request, context, rows ->
+                resultCache.put(request.getBody(), request.getArgs(), rows, request.getCacheTtl(), request.getTables(), generation));
+    }
+
+    /**
+     * Select with detached result. With single-flight enabled identical concurrent
+     * selects wait for result of the first one instead of own execution.
+     *
+     * @param request select request.
+     * @param context request execution context.
+     * @param store   called with rows of actually executed select (not shared one), may be null.
+     * @return        future completed when callback is done.
+     */
+    protected CompletableFuture<Void> sharedSelect(Request request, RequestContext context, Consumer<CachedRowSet> store) {
+        SelectCallback callback = (SelectCallback) request.getCallback();
+        SingleFlight.Flight flight = isShareable(request) ? singleFlight.join(request.getBody(), request.getArgs(), context.isPrimary()) : null;
+        if (isTracked(request, context)) {
+            // request completes once rows are fetched, before callback.
+            context.getTimer().detach();
+        }
+
+        if (flight == null || flight.isLeader()) {
+            boolean detached = isDetached(request);
+            CompletableFuture<CachedRowSet> fetched = new CompletableFuture<>();
+            CompletableFuture<Void> future = select(request.getBody(), set -> {
+                CachedRowSet rows = DetachedResults.detach(set);
+                if (store != null) {
+                    store.accept(rows);
+                }
+                if (flight != null) {
+                    flight.complete(rows);
+                }
+                if (detached) {
+                    fetched.complete(rows);
+                } else if (callback != null) {
+                    callback.run(DetachedResults.share(rows));
+                }
+            }, context, request.getArgs());
+            if (flight != null) {
+                future = future.whenComplete((ignored, throwable) -> {
+                    // no-op if rows are already shared and only leader callback failed.
+                    if (throwable != null) {
+                        flight.fail(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                    }
+                });
+            }
+
+            if (!detached) {
+                return future;
+            }
+            if (context.getExecutor() == RequestContext.DIRECT) {
+                // sync request runs callback on caller thread, connection is already released here.
+                return future.thenRun(() -> runShared(callback, fetched.join()));
+            }
+
+            future.thenRun(() -> runDetached(callback, fetched.join(), context));
+            return future;
+        }
+
+        RequestTimer requestTimer = context.getTimer();
+        requestTimer.started();
+        if (context.getExecutor() == RequestContext.DIRECT) {
+            // sync request waits for leader on caller thread and runs callback itself.
+            CachedRowSet rows;
+            try {
+                rows = flight.getResult().join();
+            } catch (CompletionException exception) {
+                return CompletableFuture.failedFuture(exception.getCause() != null ? exception.getCause() : exception);
+            }
+            requestTimer.acquired();
+            requestTimer.executed();
+            try {
+                runShared(callback, rows);
+                return CompletableFuture.completedFuture(null);
+            } catch (CompletionException exception) {
+                return CompletableFuture.failedFuture(exception.getCause());
+            }
+        }
+
+        if (isTracked(request, context)) {
+            return flight.getResult().thenAccept(rows -> {
+                requestTimer.acquired();
+                requestTimer.executed();
+                runDetached(callback, rows, context);
+            });
+        }
+
+        return flight.getResult().thenAcceptAsync(rows -> {
+            // shared select has neither connection nor execution.
+            requestTimer.acquired();
+            requestTimer.executed();
+            runShared(callback, rows);
+        }, callbackExecutor(request, context));
+    }
+
+    /**
+     * @param request select request.
+     * @return        true if request may share execution with identical concurrent selects.
+     */
+    protected boolean isShareable(Request request) {
+        return singleFlight != null && request.getTimeout() <= 0 && request.getFetchSize() == 0;
+    }
+
+    /**
+     * @param request select request.
+     * @return        true if request callback runs after connection is released.
+     */
+    protected boolean isDetached(Request request) {
+        // streamed selects are never read into memory as whole.
+        return request.getCallback() != null && !(request.getCallback() instanceof ResultCallback)
+                && request.getFetchSize() == 0 && (detachedCallbacks || request.isDetached());
+    }
+
+    /**
+     * @param request select request.
+     * @param context request execution context.
+     * @return        true if request is completed once rows are fetched and its callback is run separately.
+     */
+    protected boolean isTracked(Request request, RequestContext context) {
+        return isDetached(request) && context.getExecutor() != RequestContext.DIRECT;
+    }
+
+    /**
+     * Runs callback of detached request on callback executor. Request future is already completed,
+     * so callback is tracked by request metrics and its failure is logged.
+     *
+     * @param callback select callback.
+     * @param rows     detached rows.
+     * @param context  request execution context.
+     */
+    protected void runDetached(SelectCallback callback, CachedRowSet rows, RequestContext context) {
+        RequestTimer requestTimer = context.getTimer();
+        try {
+            CompletableFuture.runAsync(() -> runShared(callback, rows), callbackExecutor)
+                    .whenComplete((ignored, throwable) -> requestTimer.callbackCompleted(throwable));
+        } catch (RejectedExecutionException exception) {
+            log.error("Detached select callback is rejected by callback executor", exception);
+            requestTimer.callbackCompleted(exception);
+        }
+    }
+
+    /**
+     * @param request select request.
+     * @param context request execution context.
+     * @return        executor of callback over detached rows.
+     */
+    protected Executor callbackExecutor(Request request, RequestContext context) {
+        return isDetached(request) && context.getExecutor() != RequestContext.DIRECT ? callbackExecutor : context.getExecutor();
+    }
+
+    /**
+     * Runs callback over own cursor of shared rows.
+     *
+     * @param callback select callback, may be null.
+     * @param rows     detached rows.
+     */
+    protected void runShared(SelectCallback callback, CachedRowSet rows) {
+        try {
+            if (callback != null) {
+                callback.run(DetachedResults.share(rows));
+            }
+        } catch (Throwable throwable) {
+            log.error("Select callback failed", throwable);
+            throw new CompletionException(throwable);
+        }
+    }
+
+    /**
+     * @param request update request.
+     * @param future  update future.
+     * @return        future completed after cached results of request tables are invalidated,
+     *                invalidates on failure too as failed update may be applied.
+     */
+    protected CompletableFuture<Void> invalidating(Request request, CompletableFuture<Void> future) {
+        if (request.getTables().length == 0) {
+            return future;
+        }
+        return future.whenComplete((ignored, throwable) -> resultCache.invalidate(request.getTables()));
+    }
+
+    /**
+     * @param request update request.
+     * @return        true if request can be executed by batcher.
+     */
+    protected boolean isBatchable(Request request) {
+        return batcher != null && !request.isSync() && !request.isQueue() && request.getTimeout() <= 0
+                && request.getArgs() != null && request.getArgs().length > 0;
+    }
+
+    /**
+     * Executes batch of update requests with the same body. Every request
+     * receives its own update count.
+     *
+     * @param query   executing mysql command.
+     * @param entries batched requests.
+     */
+    protected void flushBatch(@NotNull @Language("SQL") String query, List<UpdateBatcher.Entry> entries) {
+        int[] counts;
+        SQLException failure = null;
+        entries.forEach(entry -> entry.getTimer().started());
+        try (Connection connection = connection()) {
+            entries.forEach(entry -> entry.getTimer().acquired());
+            try (PreparedStatement prepared = connection.prepareStatement(query)) {
+                for (UpdateBatcher.Entry entry : entries) {
+                    bind(prepared, entry.getArgs());
+                    prepared.addBatch();
+                }
+
+                counts = prepared.executeBatch();
+                entries.forEach(entry -> entry.getTimer().executed());
+            }
+        } catch (BatchUpdateException exception) {
+            failure = exception;
+            counts = exception.getUpdateCounts();
+            int failed = 0;
+            while (failed < counts.length && counts[failed] != Statement.EXECUTE_FAILED) {
+                failed++;
+            }
+            logError("batch", exception, entries.get(Math.min(failed, entries.size() - 1)).getCallSite());
+        } catch (SQLException exception) {
+            failure = exception;
+            counts = new int[0];
+            logError("batch", exception, entries.get(0).getCallSite());
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            UpdateBatcher.Entry entry = entries.get(i);
+            try {
+                if (i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+                    entry.getFuture().completeExceptionally(failure != null ? failure : new SQLException("Batch update failed"));
+                    continue;
+                }
+
+                if (entry.getCallback() != null) {
+                    entry.getCallback().run(counts[i]);
+                }
+                entry.getFuture().complete(null);
+            } catch (Throwable throwable) {
+                entry.getFuture().completeExceptionally(throwable);
+            }
+        }
+    }
+
+    /**
+     * Binds arguments to prepared statement.
+     *
+     * @param prepared prepared statement.
+     * @param args     arguments for prepared statement.
+     */
+    protected void bind(PreparedStatement prepared, Object[] args) throws SQLException {
+        // typed buffer is passed as the only argument.
+        if (args.length == 1 && args[0] instanceof ArgumentBuffer buffer) {
+            buffer.bindTo(prepared);
+            return;
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            prepared.setObject(i + 1, args[i]);
+        }
+    }
+
+    /**
+     * Records statement in slow query log if log is enabled and statement got connection.
+     *
+     * @param acquiredAt connection acquire nano time, 0 if connection was not acquired.
+     * @param executedAt statement execution end nano time, 0 if statement was not executed.
+     */
+    protected void recordSlow(RequestType type, String query, Object[] args, RequestContext context, boolean primary,
+                              long startedAt, long acquiredAt, long executedAt, SQLException error) {
+        SlowQueryLog slowQueries = this.slowQueries;
+        if (slowQueries != null && acquiredAt != 0) {
+            slowQueries.record(type, query, args, context.getCallSite(), primary, startedAt, acquiredAt, executedAt, error);
+        }
+    }
+
+    /**
+     * Explains query for slow query log, called on background thread.
+     *
+     * @param query   explained query.
+     * @param args    query arguments.
+     * @param primary true explains query on primary database, otherwise on first replica.
+     * @return        query plan rows, one per line.
+     */
+    protected String explain(String query, Object[] args, boolean primary) throws SQLException {
+        if (source == null) {
+            throw new SQLException("Database is closed");
+        }
+
+        HikariConfig target = primary || replicas == null ? config : replicaConfigs.get(0);
+        HikariDataSource explainSource = explainSources.computeIfAbsent(target, this::explainSource);
+        try (Connection connection = explainSource.getConnection();
+             PreparedStatement prepared = connection.prepareStatement("EXPLAIN " + query)) {
+            bind(prepared, args);
+            try (ResultSet set = prepared.executeQuery()) {
+                ResultSetMetaData meta = set.getMetaData();
+                StringBuilder plan = new StringBuilder();
+                while (set.next()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        if (meta.getColumnCount() > 1) {
+                            plan.append(i == 1 ? "" : ", ").append(meta.getColumnLabel(i)).append('=');
+                        }
+                        plan.append(set.getString(i));
+                    }
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    /**
+     * @param config explained database config.
+     * @return       pool of one connection which is opened on demand, without metrics of requests pool.
+     */
+    protected HikariDataSource explainSource(@NotNull HikariConfig config) {
+        HikariConfig explain = new HikariConfig();
+        config.copyStateTo(explain);
+        explain.setPoolName((config.getPoolName() != null ? config.getPoolName() : "zuki") + "-explain");
+        explain.setMetricsTrackerFactory(null);
+        explain.setMetricRegistry(null);
+        explain.setHealthCheckRegistry(null);
+        explain.setRegisterMbeans(false);
+        explain.setMaximumPoolSize(1);
+        explain.setMinimumIdle(0);
+        return new HikariDataSource(explain);
+    }
+
+    /**
+     * @return call site of current thread by {@link #callSiteCapture} policy.
+     */
+    protected CallSite captureCallSite() {
+        return CallSite.capture(callSiteCapture, callSiteDepth, callSiteSampleRate);
+    }
+
+    /**
+     * Logs failed request with its call site.
+     *
+     * @param method    failed method name.
+     * @param throwable thrown exception.
+     * @param callSite  request call site.
+     */
+    protected void logError(String method, Throwable throwable, CallSite callSite) {
+        log.error("Throwed SQL exception on " + method + " method.");
+        log.error("Message: " + throwable.getMessage());
+        if (callSite.isEmpty()) {
+            log.error("Stacktrace is not captured (call site capture: " + callSiteCapture + ")");
+            return;
+        }
+
+        log.error("Stacktrace:");
+        for (StackTraceElement traceElement : callSite.trace()) {
+            log.error("\tat " + traceElement);
+        }
+    }
+
 }
@@ -0,0 +1,52 @@
+package me.twentybytes.zuki.api.execution;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Settings of requests admission control. Only limited count of requests
+ * runs at the same time, others wait in bounded priority queue.
+ */
+@Getter @ToString
+public class AdmissionPolicy {
+
+    private int maxInFlight = 64;
+    private int maxQueued = 10000;
+    private OverflowAction overflow = OverflowAction.REJECT;
+
+    /**
+     * @param maxInFlight max requests running at the same time.
+     */
+    public AdmissionPolicy maxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Illegal in-flight limit: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * @param maxQueued max requests waiting for admission, 0 disables waiting.
+     */
+    public AdmissionPolicy maxQueued(int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Illegal queue limit: " + maxQueued);
+        }
+        this.maxQueued = maxQueued;
+        return this;
+    }
+
+    /**
+     * @param overflow action applied when both limits are reached.
+     */
+    public AdmissionPolicy overflow(@NotNull OverflowAction overflow) {
+        this.overflow = overflow;
+        return this;
+    }
+
+    public static AdmissionPolicy newBuilder() {
+        return new AdmissionPolicy();
+    }
+
+}
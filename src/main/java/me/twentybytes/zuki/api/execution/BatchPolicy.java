@@ -0,0 +1,57 @@
+package me.twentybytes.zuki.api.execution;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Settings of write-behind batching for update requests.
+ * Requests with identical bodies are collected and flushed as one
+ * jdbc batch when batch is full or first request waits too long.
+ */
+@Getter @ToString
+public class BatchPolicy {
+
+    private int maxSize = 128;
+    private long maxDelay = 10;
+    private boolean rewriteInserts;
+
+    /**
+     * @param maxSize max requests count in one batch.
+     */
+    public BatchPolicy maxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * @param maxDelay max time in millis between first request of batch and its flush.
+     */
+    public BatchPolicy maxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Enables mysql driver rewriting of batched inserts into multi-row inserts
+     * ({@code rewriteBatchedStatements}). Applied on database start.
+     * <p>
+     * Driver reports one update count for whole rewritten statement, so per-request
+     * counts are lost: callbacks of rewritten requests always receive
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} ({@code -2}), not affected rows count.
+     * Keep rewriting disabled if callbacks depend on update counts.
+     *
+     * @param rewriteInserts rewrite state.
+     */
+    public BatchPolicy rewriteInserts(boolean rewriteInserts) {
+        this.rewriteInserts = rewriteInserts;
+        return this;
+    }
+
+    public static BatchPolicy newBuilder() {
+        return new BatchPolicy();
+    }
+
+}
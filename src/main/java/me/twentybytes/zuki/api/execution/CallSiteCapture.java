@@ -0,0 +1,30 @@
+package me.twentybytes.zuki.api.execution;
+
+/**
+ * Defines how request call site ("real stacktrace") is captured.
+ * Call site is printed when request fails on executor thread.
+ */
+public enum CallSiteCapture {
+
+    /**
+     * Call site is not captured.
+     */
+    OFF,
+
+    /**
+     * Limited count of frames is captured by {@link StackWalker},
+     * stack trace elements are created only when error is logged.
+     */
+    LAZY,
+
+    /**
+     * Only part of requests captures call site (same way as {@link #LAZY}).
+     */
+    SAMPLED,
+
+    /**
+     * Whole stack is captured for every request.
+     */
+    FULL
+
+}
@@ -0,0 +1,21 @@
+package me.twentybytes.zuki.api.execution;
+
+/**
+ * Defines on which threads database requests are executed.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Small fixed thread pool shared by all requests (legacy behaviour).
+     */
+    FIXED_POOL,
+
+    /**
+     * Every request runs on its own virtual thread, concurrency is limited
+     * only by the connection pool size or a configured permit count.
+     * <p>
+     * On runtimes without virtual threads a thread-per-request pool is used instead.
+     */
+    VIRTUAL_THREADS
+
+}
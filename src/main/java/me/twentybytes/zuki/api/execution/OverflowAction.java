@@ -0,0 +1,25 @@
+package me.twentybytes.zuki.api.execution;
+
+/**
+ * Defines what happens to request submitted when both in-flight
+ * and queued requests limits are reached.
+ */
+public enum OverflowAction {
+
+    /**
+     * Request is completed exceptionally with {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    REJECT,
+
+    /**
+     * Request runs on submitting thread, which slows submitters down.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Oldest queued request of the lowest priority (not higher than submitted one)
+     * is rejected to make room. Submitted request is rejected if there is no such request.
+     */
+    DROP_OLDEST
+
+}
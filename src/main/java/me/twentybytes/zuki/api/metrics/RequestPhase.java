@@ -0,0 +1,28 @@
+package me.twentybytes.zuki.api.metrics;
+
+/**
+ * Timed phases of request execution.
+ */
+public enum RequestPhase {
+
+    /**
+     * From submission to start on executor, includes ordered lane and batch waiting.
+     */
+    QUEUE,
+
+    /**
+     * Connection borrowing from pool.
+     */
+    ACQUIRE,
+
+    /**
+     * Statement preparing and execution.
+     */
+    EXECUTE,
+
+    /**
+     * Callback execution, including result set reading.
+     */
+    CALLBACK
+
+}
@@ -0,0 +1,55 @@
+package me.twentybytes.zuki.api.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Timing of one completed request.
+ */
+@Getter @ToString
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class RequestTiming {
+
+    String label;
+    RequestType requestType;
+    long queueNanos;
+    long acquireNanos;
+    long executeNanos;
+    long callbackNanos;
+
+    /**
+     * Request failure, null if request is successful.
+     */
+    Throwable error;
+
+    /**
+     * @param phase request phase.
+     * @return      phase time in nanos.
+     */
+    public long nanos(@NotNull RequestPhase phase) {
+        return switch (phase) {
+            case QUEUE -> queueNanos;
+            case ACQUIRE -> acquireNanos;
+            case EXECUTE -> executeNanos;
+            case CALLBACK -> callbackNanos;
+        };
+    }
+
+    /**
+     * @return time from submission to completion.
+     */
+    public long totalNanos() {
+        return queueNanos + acquireNanos + executeNanos + callbackNanos;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+}
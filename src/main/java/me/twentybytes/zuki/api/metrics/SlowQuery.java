@@ -0,0 +1,69 @@
+package me.twentybytes.zuki.api.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import me.twentybytes.zuki.api.request.RequestType;
+
+/**
+ * Slow query log entry.
+ */
+@Getter @ToString
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class SlowQuery {
+
+    /**
+     * Statement start time, epoch millis.
+     */
+    long timestamp;
+    RequestType requestType;
+    String body;
+
+    /**
+     * Redacted arguments, empty if arguments are not recorded.
+     */
+    Object[] arguments;
+    int argumentsCount;
+    long acquireNanos;
+    long executeNanos;
+
+    /**
+     * Time of result reading and callback after execution, not compared with threshold.
+     */
+    long fetchNanos;
+
+    /**
+     * Request call site, empty if it was not captured.
+     */
+    @ToString.Exclude
+    StackTraceElement[] callSite;
+
+    /**
+     * Statement failure message, null if statement is successful.
+     */
+    String error;
+
+    /**
+     * Query plan, null if query is not explained (yet).
+     */
+    @Setter @NonFinal
+    @ToString.Exclude
+    volatile String explain;
+
+    /**
+     * @return time from connection acquire to end of result reading.
+     */
+    public long totalNanos() {
+        return executeNanos + fetchNanos;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+}
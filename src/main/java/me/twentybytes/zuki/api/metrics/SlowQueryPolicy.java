@@ -0,0 +1,98 @@
+package me.twentybytes.zuki.api.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+
+/**
+ * Settings of slow query log. Statements running longer than threshold (from connection
+ * acquire to end of execution, result is fetched by driver unless fetch size is set, request
+ * callback is not counted) are kept in bounded in-memory log, sampled ones are explained
+ * in background and log may be mirrored to rotating file.
+ */
+@Getter @ToString
+public class SlowQueryPolicy {
+
+    private long threshold = 1000;
+    private int capacity = 256;
+    private boolean arguments = true;
+    private UnaryOperator<Object> redactor = UnaryOperator.identity();
+    private int explainSampleRate = 10;
+    private int explainQueue = 16;
+    private Path file;
+    private long maxFileSize = 10 * 1024 * 1024;
+    private int maxFiles = 5;
+
+    /**
+     * @param threshold min statement time which is considered slow.
+     */
+    public SlowQueryPolicy threshold(@NotNull Duration threshold) {
+        this.threshold = Math.max(threshold.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param capacity max count of kept slow queries, oldest ones are overwritten.
+     */
+    public SlowQueryPolicy capacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal slow query log capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * @param arguments false records only count of statement arguments.
+     */
+    public SlowQueryPolicy arguments(boolean arguments) {
+        this.arguments = arguments;
+        return this;
+    }
+
+    /**
+     * @param redactor maps every recorded argument value, e.g. to mask personal data.
+     *                 Explain statements are still executed with original values.
+     */
+    public SlowQueryPolicy redactor(@NotNull UnaryOperator<Object> redactor) {
+        this.redactor = redactor;
+        return this;
+    }
+
+    /**
+     * @param explainSampleRate every n-th slow query is explained, 1 explains all of them, 0 or less disables explain.
+     */
+    public SlowQueryPolicy explainSampleRate(int explainSampleRate) {
+        this.explainSampleRate = explainSampleRate;
+        return this;
+    }
+
+    /**
+     * @param explainQueue max count of explains waiting for background connection, extra ones are skipped.
+     */
+    public SlowQueryPolicy explainQueue(int explainQueue) {
+        this.explainQueue = Math.max(explainQueue, 1);
+        return this;
+    }
+
+    /**
+     * @param file        file which slow queries are appended to, null keeps log in memory only.
+     * @param maxFileSize max file size in bytes before rotation.
+     * @param maxFiles    max count of rotated files ({@code file.1}, {@code file.2}...).
+     */
+    public SlowQueryPolicy file(Path file, long maxFileSize, int maxFiles) {
+        this.file = file;
+        this.maxFileSize = Math.max(maxFileSize, 1);
+        this.maxFiles = Math.max(maxFiles, 0);
+        return this;
+    }
+
+    public static SlowQueryPolicy newBuilder() {
+        return new SlowQueryPolicy();
+    }
+
+}
@@ -0,0 +1,40 @@
+package me.twentybytes.zuki.api.metrics;
+
+import me.twentybytes.zuki.api.request.RequestType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Metrics SPI, receives request lifecycle events. Every submitted request
+ * is reported as submitted, started and completed exactly once.
+ * Methods are called on request threads, so they must be fast and thread-safe.
+ */
+public interface ZukiMetrics {
+
+    /**
+     * Metrics which ignore all events, requests are not timed at all.
+     */
+    ZukiMetrics NOOP = new ZukiMetrics() {
+    };
+
+    /**
+     * @param label request label.
+     * @param type  request type.
+     */
+    default void submitted(@NotNull String label, @NotNull RequestType type) {
+    }
+
+    /**
+     * @param label      request label.
+     * @param type       request type.
+     * @param queueNanos time from submission to start.
+     */
+    default void started(@NotNull String label, @NotNull RequestType type, long queueNanos) {
+    }
+
+    /**
+     * @param timing completed request timing.
+     */
+    default void completed(@NotNull RequestTiming timing) {
+    }
+
+}
@@ -0,0 +1,79 @@
+package me.twentybytes.zuki.api.pool;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Settings of adaptive primary pool sizing. Pool grows when all connections are busy and
+ * requests wait for connection longer than target wait, and shrinks back step by step
+ * after long enough period of low concurrency.
+ */
+@Getter @ToString
+public class AdaptivePoolPolicy {
+
+    private int minSize = 2;
+    private int maxSize = 32;
+    private long interval = 1000;
+    private long targetWait = 5;
+    private int step = 2;
+    private int shrinkDelay = 30;
+
+    /**
+     * @param minSize min pool size, also used as hikari minimum idle connections count.
+     * @param maxSize max pool size.
+     */
+    public AdaptivePoolPolicy bounds(int minSize, int maxSize) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("Illegal pool bounds: " + minSize + ".." + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * @param interval time between pool usage samples.
+     */
+    public AdaptivePoolPolicy interval(@NotNull Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Illegal sample interval: " + interval);
+        }
+        this.interval = interval.toMillis();
+        return this;
+    }
+
+    /**
+     * @param targetWait average connection acquire wait which is considered as pool shortage.
+     */
+    public AdaptivePoolPolicy targetWait(@NotNull Duration targetWait) {
+        this.targetWait = Math.max(targetWait.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param step min count of connections added or removed by one resize.
+     */
+    public AdaptivePoolPolicy step(int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Illegal resize step: " + step);
+        }
+        this.step = step;
+        return this;
+    }
+
+    /**
+     * @param shrinkDelay count of calm samples in a row required before pool shrinking.
+     */
+    public AdaptivePoolPolicy shrinkDelay(int shrinkDelay) {
+        this.shrinkDelay = Math.max(shrinkDelay, 1);
+        return this;
+    }
+
+    public static AdaptivePoolPolicy newBuilder() {
+        return new AdaptivePoolPolicy();
+    }
+
+}
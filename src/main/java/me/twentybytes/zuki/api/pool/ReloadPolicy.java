@@ -0,0 +1,51 @@
+package me.twentybytes.zuki.api.pool;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Settings of pool swap on config reload. New pool is warmed up before requests
+ * are switched to it, old pool is closed after its borrowed connections are returned.
+ */
+@Getter @ToString
+public class ReloadPolicy {
+
+    private long warmupTimeout = 10000;
+    private long drainTimeout = 30000;
+    private long debounce = 500;
+
+    /**
+     * @param warmupTimeout max time to wait for new pool minimum idle connections if
+     *                      {@link WarmupPolicy} is not configured, pool is switched to
+     *                      even if it is not filled yet.
+     */
+    public ReloadPolicy warmupTimeout(@NotNull Duration warmupTimeout) {
+        this.warmupTimeout = Math.max(warmupTimeout.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param drainTimeout max time to wait for requests running on old pool,
+     *                     connections still borrowed after it are aborted by pool close.
+     */
+    public ReloadPolicy drainTimeout(@NotNull Duration drainTimeout) {
+        this.drainTimeout = Math.max(drainTimeout.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param debounce quiet period after config file change, so partially written file is not read.
+     */
+    public ReloadPolicy debounce(@NotNull Duration debounce) {
+        this.debounce = Math.max(debounce.toMillis(), 0);
+        return this;
+    }
+
+    public static ReloadPolicy newBuilder() {
+        return new ReloadPolicy();
+    }
+
+}
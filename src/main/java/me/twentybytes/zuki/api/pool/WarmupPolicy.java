@@ -0,0 +1,101 @@
+package me.twentybytes.zuki.api.pool;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import me.twentybytes.zuki.api.request.Query;
+import me.twentybytes.zuki.api.request.QueryTemplate;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Settings of pool warm-up. Warm-up opens pool connections in parallel before
+ * traffic and prepares hot queries on every opened connection, so driver statement
+ * cache ({@code cachePrepStmts}) is filled before first requests.
+ */
+@Getter @ToString
+public class WarmupPolicy {
+
+    private int connections = -1;
+    private int parallelism = 4;
+    private long timeout = 30000;
+
+    @Getter(AccessLevel.NONE)
+    private final Set<String> queries = new LinkedHashSet<>();
+
+    /**
+     * @param connections count of connections to open, capped by maximum pool size.
+     *                    0 or less means pool minimum idle connections count.
+     */
+    public WarmupPolicy connections(int connections) {
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * @param parallelism count of connections opened and prepared at the same time.
+     */
+    public WarmupPolicy parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Illegal warm-up parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param timeout max warm-up time, connections not opened in time are skipped.
+     */
+    public WarmupPolicy timeout(@NotNull Duration timeout) {
+        this.timeout = Math.max(timeout.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param sql hot query prepared on every warmed connection.
+     */
+    public WarmupPolicy query(@NotNull @Language("SQL") String sql) {
+        queries.add(sql);
+        return this;
+    }
+
+    /**
+     * @param query hot query prepared on every warmed connection.
+     */
+    public WarmupPolicy query(@NotNull Query query) {
+        return query(query.build());
+    }
+
+    /**
+     * @param template hot query template, its compiled sql is prepared on every warmed connection.
+     */
+    public WarmupPolicy query(@NotNull QueryTemplate template) {
+        return query(template.sql());
+    }
+
+    /**
+     * @param queries hot queries prepared on every warmed connection.
+     */
+    public WarmupPolicy queries(@NotNull Collection<String> queries) {
+        this.queries.addAll(queries);
+        return this;
+    }
+
+    /**
+     * @return hot queries.
+     */
+    public Set<String> getQueries() {
+        return Collections.unmodifiableSet(queries);
+    }
+
+    public static WarmupPolicy newBuilder() {
+        return new WarmupPolicy();
+    }
+
+}
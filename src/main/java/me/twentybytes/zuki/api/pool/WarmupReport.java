@@ -0,0 +1,34 @@
+package me.twentybytes.zuki.api.pool;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Pool warm-up result.
+ */
+@Getter @ToString
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class WarmupReport {
+
+    /**
+     * Report of database started without warm-up.
+     */
+    public static final WarmupReport NONE = new WarmupReport(0, 0, 0, 0);
+
+    int connections;
+    long prepared;
+    long failed;
+    long elapsedNanos;
+
+    /**
+     * @return warm-up time in millis.
+     */
+    public long elapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+}
@@ -0,0 +1,269 @@
+package me.twentybytes.zuki.api.request;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Reusable typed statement arguments. Primitives are stored without boxing and bound
+ * by typed setters ({@code setInt}, {@code setLong}...) instead of {@code setObject}.
+ * <p>
+ * Buffer may be passed as the only argument wherever arguments are accepted
+ * ({@link Request#arguments(ArgumentBuffer)}, transaction statements). Buffer is not copied,
+ * so it must not be changed until request is completed; sync requests may reuse one
+ * buffer (and one request) without any allocation per statement.
+ */
+public final class ArgumentBuffer {
+
+    private static final byte UNSET = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte STRING = 5;
+    private static final byte BYTES = 6;
+    private static final byte NULL = 7;
+    private static final byte OBJECT = 8;
+
+    private byte[] types;
+    private long[] primitives;
+    private Object[] references;
+    private int size;
+
+    /**
+     * Buffer wrapped as arguments array, so it passes through varargs without allocation.
+     */
+    private final Object[] array = {this};
+
+    public ArgumentBuffer() {
+        this(8);
+    }
+
+    /**
+     * @param capacity expected arguments count.
+     */
+    public ArgumentBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.types = new byte[capacity];
+        this.primitives = new long[capacity];
+        this.references = new Object[capacity];
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public ArgumentBuffer bindInt(int index, int value) {
+        primitives[slot(index, INT)] = value;
+        return this;
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public ArgumentBuffer bindLong(int index, long value) {
+        primitives[slot(index, LONG)] = value;
+        return this;
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public ArgumentBuffer bindDouble(int index, double value) {
+        primitives[slot(index, DOUBLE)] = Double.doubleToRawLongBits(value);
+        return this;
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public ArgumentBuffer bindBoolean(int index, boolean value) {
+        primitives[slot(index, BOOLEAN)] = value ? 1 : 0;
+        return this;
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value, may be null.
+     */
+    public ArgumentBuffer bindString(int index, String value) {
+        if (value == null) {
+            return bindNull(index, Types.VARCHAR);
+        }
+        references[slot(index, STRING)] = value;
+        return this;
+    }
+
+    /**
+     * @param index argument index, starts from 1.
+     * @param value argument value, not copied, may be null.
+     */
+    public ArgumentBuffer bindBytes(int index, byte[] value) {
+        if (value == null) {
+            return bindNull(index, Types.VARBINARY);
+        }
+        references[slot(index, BYTES)] = value;
+        return this;
+    }
+
+    /**
+     * @param index   argument index, starts from 1.
+     * @param sqlType sql type from {@link Types}.
+     */
+    public ArgumentBuffer bindNull(int index, int sqlType) {
+        primitives[slot(index, NULL)] = sqlType;
+        return this;
+    }
+
+    /**
+     * Fallback for other types, bound by {@code setObject}.
+     *
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public ArgumentBuffer bindObject(int index, Object value) {
+        references[slot(index, OBJECT)] = value;
+        return this;
+    }
+
+    /**
+     * Removes all arguments, keeping allocated capacity.
+     */
+    public ArgumentBuffer clear() {
+        Arrays.fill(types, 0, size, UNSET);
+        Arrays.fill(references, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    /**
+     * @return arguments count (highest bound index).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param prepared statement to bind arguments to.
+     */
+    public void bindTo(@NotNull PreparedStatement prepared) throws SQLException {
+        for (int i = 0; i < size; i++) {
+            switch (types[i]) {
+                case INT -> prepared.setInt(i + 1, (int) primitives[i]);
+                case LONG -> prepared.setLong(i + 1, primitives[i]);
+                case DOUBLE -> prepared.setDouble(i + 1, Double.longBitsToDouble(primitives[i]));
+                case BOOLEAN -> prepared.setBoolean(i + 1, primitives[i] != 0);
+                case STRING -> prepared.setString(i + 1, (String) references[i]);
+                case BYTES -> prepared.setBytes(i + 1, (byte[]) references[i]);
+                case NULL -> prepared.setNull(i + 1, (int) primitives[i]);
+                case OBJECT -> prepared.setObject(i + 1, references[i]);
+                default -> throw new SQLException("Argument " + (i + 1) + " is not bound");
+            }
+        }
+    }
+
+    /**
+     * @return buffer as the only element of arguments array, always the same array.
+     */
+    public Object[] asArguments() {
+        return array;
+    }
+
+    /**
+     * @return copy of buffer, used where arguments outlive request (cache keys).
+     */
+    public ArgumentBuffer copy() {
+        ArgumentBuffer copy = new ArgumentBuffer(size);
+        System.arraycopy(types, 0, copy.types, 0, size);
+        System.arraycopy(primitives, 0, copy.primitives, 0, size);
+        System.arraycopy(references, 0, copy.references, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * @return boxed arguments values.
+     */
+    public Object[] toArray() {
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = switch (types[i]) {
+                case INT -> (int) primitives[i];
+                case LONG -> primitives[i];
+                case DOUBLE -> Double.longBitsToDouble(primitives[i]);
+                case BOOLEAN -> primitives[i] != 0;
+                case STRING, BYTES, OBJECT -> references[i];
+                default -> null;
+            };
+        }
+        return values;
+    }
+
+    private int slot(int index, byte type) {
+        if (index < 1) {
+            throw new IllegalArgumentException("Illegal argument index: " + index);
+        }
+
+        int slot = index - 1;
+        if (slot >= types.length) {
+            int capacity = Math.max(types.length * 2, index);
+            types = Arrays.copyOf(types, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            references = Arrays.copyOf(references, capacity);
+        }
+
+        types[slot] = type;
+        references[slot] = null;
+        size = Math.max(size, index);
+        return slot;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ArgumentBuffer other) || other.size != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (types[i] != other.types[i]) {
+                return false;
+            }
+            boolean equal = switch (types[i]) {
+                case INT, LONG, DOUBLE, BOOLEAN, NULL -> primitives[i] == other.primitives[i];
+                case BYTES -> Arrays.equals((byte[]) references[i], (byte[]) other.references[i]);
+                case UNSET -> true;
+                default -> Arrays.deepEquals(new Object[]{references[i]}, new Object[]{other.references[i]});
+            };
+            if (!equal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + types[i];
+            hash = 31 * hash + switch (types[i]) {
+                case INT, LONG, DOUBLE, BOOLEAN, NULL -> Long.hashCode(primitives[i]);
+                case BYTES -> Arrays.hashCode((byte[]) references[i]);
+                case UNSET -> 0;
+                default -> Arrays.deepHashCode(new Object[]{references[i]});
+            };
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(toArray());
+    }
+
+}
@@ -0,0 +1,24 @@
+package me.twentybytes.zuki.api.request;
+
+/**
+ * Request priority class. Requests waiting for admission are started
+ * in priority order, requests of the same priority in submission order.
+ */
+public enum Priority {
+
+    /**
+     * Latency critical requests (interactive reads).
+     */
+    HIGH,
+
+    /**
+     * Default priority.
+     */
+    NORMAL,
+
+    /**
+     * Background jobs, first to wait and first to be dropped under contention.
+     */
+    LOW
+
+}
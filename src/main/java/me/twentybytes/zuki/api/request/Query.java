@@ -69,6 +69,33 @@ public class Query {
         return this;
     }
 
+    /**
+     * Appends named bind slot ({@code :name}).
+     *
+     * @param name slot name.
+     */
+    public Query param(String name) {
+        builder.append(':').append(name);
+        return this;
+    }
+
+    /**
+     * Appends list slot ({@code IN (:name)}), bound collection is expanded on binding.
+     *
+     * @param name slot name.
+     */
+    public Query in(String name) {
+        builder.append(" IN (:").append(name).append(')');
+        return this;
+    }
+
+    /**
+     * @return immutable reusable template of this query.
+     */
+    public QueryTemplate compile() {
+        return QueryTemplate.compile(builder.toString());
+    }
+
     public String build() {
         return builder.toString();
     }
@@ -0,0 +1,322 @@
+package me.twentybytes.zuki.api.request;
+
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable compiled query with bind slots. Template is compiled once
+ * and shared, requests only bind values without any string building.
+ * <p>
+ * Slots are named ({@code :id}) or positional ({@code ?}), not mixed.
+ * Named slot bound with collection or array is expanded into {@code ?, ?, ...}
+ * list, list sizes are rounded up to power of two (1, 2, 4, 8...) and padded
+ * by last value, so count of distinct prepared statements stays bounded.
+ * Compiled sql strings are interned.
+ */
+public final class QueryTemplate {
+
+    private final String[] fragments;
+    private final int[] slots;
+    private final String[] names;
+    private final boolean positional;
+    private final String sql;
+    private final ConcurrentMap<Object, String> expanded = new ConcurrentHashMap<>();
+
+    private QueryTemplate(String[] fragments, int[] slots, String[] names, boolean positional) {
+        this.fragments = fragments;
+        this.slots = slots;
+        this.names = names;
+        this.positional = positional;
+        this.sql = join(null).intern();
+    }
+
+    /**
+     * @param sql query with named or positional slots.
+     * @return    compiled template.
+     */
+    @NotNull
+    public static QueryTemplate compile(@NotNull @Language("SQL") String sql) {
+        List<String> fragments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Map<String, Integer> names = new LinkedHashMap<>();
+        boolean named = false, positional = false;
+
+        StringBuilder fragment = new StringBuilder();
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                fragment.append(sql, i, end);
+                i = end - 1;
+            } else if ((c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') || c == '#') {
+                int end = sql.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                fragment.append(sql, i, end);
+                i = end - 1;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                fragment.append(sql, i, end);
+                i = end - 1;
+            } else if (c == '?') {
+                positional = true;
+                fragments.add(fragment.toString());
+                fragment.setLength(0);
+                slots.add(slots.size());
+            } else if (c == ':' && i + 1 < length && Character.isJavaIdentifierStart(sql.charAt(i + 1))
+                    && (i == 0 || sql.charAt(i - 1) != ':')) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+
+                named = true;
+                fragments.add(fragment.toString());
+                fragment.setLength(0);
+                String name = sql.substring(i + 1, end);
+                slots.add(names.computeIfAbsent(name, ignored -> names.size()));
+                i = end - 1;
+            } else {
+                fragment.append(c);
+            }
+        }
+        fragments.add(fragment.toString());
+
+        if (named && positional) {
+            throw new IllegalArgumentException("Named and positional slots can not be mixed: " + sql);
+        }
+
+        return new QueryTemplate(
+                fragments.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                positional ? new String[0] : names.keySet().toArray(new String[0]),
+                positional
+        );
+    }
+
+    /**
+     * @return compiled sql without list expansion.
+     */
+    public String sql() {
+        return sql;
+    }
+
+    /**
+     * @return count of slots.
+     */
+    public int slots() {
+        return slots.length;
+    }
+
+    /**
+     * @param type request type.
+     * @return     new values binding of this template.
+     */
+    public Binding bind(@NotNull RequestType type) {
+        return new Binding(type);
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+
+    private String join(int[] sizes) {
+        StringBuilder builder = new StringBuilder(fragments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            int size = sizes == null || positional ? 0 : sizes[slots[i]];
+            builder.append('?');
+            for (int j = 1; j < size; j++) {
+                builder.append(", ?");
+            }
+            builder.append(fragments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        for (int i = start + 1; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return sql.length();
+    }
+
+    private static int bucket(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * Values bound to template slots.
+     */
+    public final class Binding {
+
+        private final RequestType type;
+        private final Object[] values;
+        private final boolean[] bound;
+
+        private Binding(RequestType type) {
+            this.type = type;
+            this.values = new Object[positional ? slots.length : names.length];
+            this.bound = new boolean[values.length];
+        }
+
+        /**
+         * @param name  slot name.
+         * @param value slot value, collections and arrays are expanded as lists.
+         */
+        public Binding set(@NotNull String name, Object value) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    values[i] = value;
+                    bound[i] = true;
+                    return this;
+                }
+            }
+            throw new IllegalArgumentException("Unknown slot :" + name + " in " + sql);
+        }
+
+        /**
+         * @param position slot position, starts from 1.
+         * @param value    slot value.
+         */
+        public Binding set(int position, Object value) {
+            if (!positional || position < 1 || position > values.length) {
+                throw new IllegalArgumentException("Unknown slot " + position + " in " + sql);
+            }
+            values[position - 1] = value;
+            bound[position - 1] = true;
+            return this;
+        }
+
+        /**
+         * @return request with expanded sql and arguments.
+         */
+        public Request request() {
+            return Request.newBuilder(type).body(sql()).arguments(arguments());
+        }
+
+        /**
+         * @return sql for currently bound list sizes.
+         */
+        public String sql() {
+            if (positional) {
+                return sql;
+            }
+
+            int[] sizes = null;
+            for (int i = 0; i < values.length; i++) {
+                int size = size(values[i]);
+                if (size >= 0) {
+                    if (sizes == null) {
+                        sizes = new int[values.length];
+                    }
+                    sizes[i] = bucket(size);
+                }
+            }
+
+            if (sizes == null) {
+                return sql;
+            }
+
+            int[] buckets = sizes;
+            return expanded.computeIfAbsent(signature(buckets), ignored -> join(buckets).intern());
+        }
+
+        /**
+         * @return arguments in slots order, lists are expanded and padded.
+         */
+        public Object[] arguments() {
+            for (int i = 0; i < bound.length; i++) {
+                if (!bound[i]) {
+                    throw new IllegalStateException("Slot " + (positional ? String.valueOf(i + 1) : ":" + names[i]) + " is not bound in " + QueryTemplate.this.sql);
+                }
+            }
+
+            if (positional) {
+                return values.clone();
+            }
+
+            int count = 0;
+            for (int slot : slots) {
+                int size = size(values[slot]);
+                count += size < 0 ? 1 : bucket(size);
+            }
+
+            Object[] args = new Object[count];
+            int index = 0;
+            for (int slot : slots) {
+                Object value = values[slot];
+                int size = size(value);
+                if (size < 0) {
+                    args[index++] = value;
+                    continue;
+                }
+
+                // empty list becomes IN (NULL), which matches nothing.
+                Object last = null;
+                int bucket = bucket(size);
+                if (value instanceof Collection<?> collection) {
+                    for (Object element : collection) {
+                        args[index++] = last = element;
+                    }
+                } else {
+                    for (int i = 0; i < size; i++) {
+                        args[index++] = last = Array.get(value, i);
+                    }
+                }
+
+                for (int i = size; i < bucket; i++) {
+                    args[index++] = last;
+                }
+            }
+            return args;
+        }
+
+        /**
+         * @return unique key of list sizes (base-33 number of bucket exponents).
+         */
+        private Object signature(int[] sizes) {
+            if (sizes.length > 12) {
+                return Arrays.toString(sizes);
+            }
+
+            long signature = 0;
+            for (int size : sizes) {
+                signature = signature * 33 + (size == 0 ? 0 : Integer.numberOfTrailingZeros(size) + 1);
+            }
+            return signature;
+        }
+
+        private int size(Object value) {
+            if (value instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (value != null && value.getClass().isArray() && value.getClass() != byte[].class) {
+                return Array.getLength(value);
+            }
+            return -1;
+        }
+
+    }
+
+}
@@ -8,17 +8,37 @@ import me.twentybytes.zuki.api.callback.SelectCallback;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
+
 @Getter @ToString @EqualsAndHashCode
 public class Request {
 
+    /**
+     * Ordering key of requests queued without explicit key.
+     */
+    private static final Object GLOBAL_ORDER = new Object() {
+        @Override
+        public String toString() {
+            return "GLOBAL";
+        }
+    };
+
     private final RequestType requestType;
     private Callback callback;
     private String body;
-    private Object[] args;
+    private Object[] args = new Object[0];
     private boolean queue;
+    private Object orderingKey;
     private Runnable timeoutRunnable;
     private long timeout;
     private boolean sync;
+    private int fetchSize;
+    private long cacheTtl;
+    private String[] tables = new String[0];
+    private boolean primary;
+    private String label;
+    private Priority priority = Priority.NORMAL;
+    private boolean detached;
 
     public Request(RequestType type) {
         this.requestType = type;
@@ -29,6 +49,17 @@ public class Request {
         return this;
     }
 
+    /**
+     * Uses template sql without list expansion, arguments must be set separately.
+     * For named slots use {@link QueryTemplate#bind(RequestType)}.
+     *
+     * @param template compiled template.
+     */
+    public Request body(@NotNull QueryTemplate template) {
+        this.body = template.sql();
+        return this;
+    }
+
     public Request body(@NotNull @Language("SQL") String body) {
         this.body = body;
         return this;
@@ -52,22 +83,231 @@ public class Request {
         return this;
     }
 
+    /**
+     * Typed arguments bound without boxing, buffer must not be changed until request is completed.
+     *
+     * @param buffer arguments buffer.
+     */
+    public Request arguments(@NotNull ArgumentBuffer buffer) {
+        this.args = buffer.asArguments();
+        return this;
+    }
+
+    /**
+     * Binds typed argument to own buffer of request, replaces plain arguments.
+     *
+     * @param index argument index, starts from 1.
+     * @param value argument value.
+     */
+    public Request bindInt(int index, int value) {
+        buffer().bindInt(index, value);
+        return this;
+    }
+
+    /**
+     * @see #bindInt(int, int)
+     */
+    public Request bindLong(int index, long value) {
+        buffer().bindLong(index, value);
+        return this;
+    }
+
+    /**
+     * @see #bindInt(int, int)
+     */
+    public Request bindDouble(int index, double value) {
+        buffer().bindDouble(index, value);
+        return this;
+    }
+
+    /**
+     * @see #bindInt(int, int)
+     */
+    public Request bindString(int index, String value) {
+        buffer().bindString(index, value);
+        return this;
+    }
+
+    /**
+     * @see #bindInt(int, int)
+     */
+    public Request bindBytes(int index, byte[] value) {
+        buffer().bindBytes(index, value);
+        return this;
+    }
+
+    private ArgumentBuffer buffer() {
+        if (args.length == 1 && args[0] instanceof ArgumentBuffer buffer) {
+            return buffer;
+        }
+        ArgumentBuffer buffer = new ArgumentBuffer();
+        this.args = buffer.asArguments();
+        return buffer;
+    }
+
+    /**
+     * Queued requests are executed one by one in submission order.
+     * Without {@link #orderingKey(Object)} all queued requests share one global lane.
+     *
+     * @param state queue state.
+     */
     public Request queue(boolean state) {
         this.queue = state;
+        if (!state) {
+            this.orderingKey = null;
+        } else if (orderingKey == null) {
+            this.orderingKey = GLOBAL_ORDER;
+        }
+        return this;
+    }
+
+    /**
+     * Requests with equal ordering keys are executed one by one in submission order,
+     * requests with different keys are executed in parallel.
+     *
+     * @param key ordering key (player id, table name...)
+     */
+    public Request orderingKey(@NotNull Object key) {
+        this.queue = true;
+        this.orderingKey = key;
         return this;
     }
 
+    /**
+     * Request deadline. When it passes, request future is completed with
+     * {@link java.util.concurrent.TimeoutException}, running statement is
+     * cancelled and not started request is skipped.
+     *
+     * @param timeoutRunnable called once if request times out, may be null.
+     * @param timeout         timeout in millis, 0 or less disables deadline.
+     */
     public Request timeout(Runnable timeoutRunnable, long timeout) {
         this.timeoutRunnable = timeoutRunnable;
         this.timeout = timeout;
         return this;
     }
 
+    /**
+     * @param timeout request deadline, see {@link #timeout(Runnable, long)}.
+     */
+    public Request timeout(@NotNull Duration timeout) {
+        return timeout(null, timeout.toMillis());
+    }
+
     public Request sync(boolean sync) {
         this.sync = sync;
         return this;
     }
 
+    /**
+     * Fetch size hint for streamed selects, 0 means database default.
+     * Selects with fetch size are streamed as is, they are never shared or detached.
+     *
+     * @param fetchSize rows count fetched by driver at once.
+     */
+    public Request fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Enables result caching of select request.
+     *
+     * @param ttl time to live of cached result.
+     */
+    public Request cache(@NotNull Duration ttl) {
+        this.cacheTtl = ttl.toNanos();
+        return this;
+    }
+
+    /**
+     * Tables read (select) or changed (update) by request.
+     * Completed updates invalidate cached results of these tables, failed updates too,
+     * since they may be applied partially or committed before failure is reported.
+     *
+     * @param tables table names.
+     */
+    public Request tables(@NotNull String... tables) {
+        this.tables = tables;
+        return this;
+    }
+
+    /**
+     * Pins select request to primary database, so it sees writes
+     * not yet replicated to read replicas.
+     *
+     * @param primary primary state.
+     */
+    public Request primary(boolean primary) {
+        this.primary = primary;
+        return this;
+    }
+
+    /**
+     * Label of request metrics, requests without label are grouped by request type
+     * ({@code unlabeled:SELECT}). Label should be constant name of query, not built from arguments.
+     *
+     * @param label metrics label.
+     */
+    public Request label(@NotNull String label) {
+        this.label = label;
+        return this;
+    }
+
+    /**
+     * Detached select is read into memory, connection and request thread are released
+     * before callback, which runs on database callback executor. Async request future is
+     * completed once rows are fetched, callback failure is logged and reported to metrics.
+     *
+     * @param detached detached state.
+     */
+    public Request detached(boolean detached) {
+        this.detached = detached;
+        return this;
+    }
+
+    /**
+     * Priority of request waiting for admission, see {@link me.twentybytes.zuki.api.execution.AdmissionPolicy}.
+     *
+     * @param priority request priority.
+     */
+    public Request priority(@NotNull Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * @return metrics label or {@code unlabeled:<type>} if label is not specified.
+     */
+    public String label() {
+        return label != null ? label : "unlabeled:" + requestType;
+    }
+
+    /**
+     * Shallow copy of request, arguments and tables are shared with original.
+     *
+     * @return new request with same state.
+     */
+    public Request copy() {
+        Request copy = new Request(requestType);
+        copy.callback = callback;
+        copy.body = body;
+        copy.args = args;
+        copy.queue = queue;
+        copy.orderingKey = orderingKey;
+        copy.timeoutRunnable = timeoutRunnable;
+        copy.timeout = timeout;
+        copy.sync = sync;
+        copy.fetchSize = fetchSize;
+        copy.cacheTtl = cacheTtl;
+        copy.tables = tables;
+        copy.primary = primary;
+        copy.label = label;
+        copy.priority = priority;
+        copy.detached = detached;
+        return copy;
+    }
+
     public static Request newBuilder(RequestType requestType) {
         return new Request(requestType);
     }
@@ -0,0 +1,49 @@
+package me.twentybytes.zuki.api.result;
+
+/**
+ * Forward cursor over columnar result rows. Getters read primitive arrays
+ * directly and never box values, columns are numbered from 1.
+ */
+public interface ColumnCursor {
+
+    /**
+     * @return true if cursor moved to next row, false after last row.
+     */
+    boolean next();
+
+    /**
+     * @return current row index, starts from 0.
+     */
+    int row();
+
+    /**
+     * @param column column number.
+     * @return       true if value of current row is sql NULL.
+     */
+    boolean isNull(int column);
+
+    /**
+     * @param column column number.
+     * @return       int value, 0 for NULL, long and double values are narrowed.
+     */
+    int getInt(int column);
+
+    /**
+     * @param column column number.
+     * @return       long value, 0 for NULL, double values are narrowed.
+     */
+    long getLong(int column);
+
+    /**
+     * @param column column number.
+     * @return       double value, 0 for NULL.
+     */
+    double getDouble(int column);
+
+    /**
+     * @param column column number.
+     * @return       string value (dictionary instance for string columns), null for NULL.
+     */
+    String getString(int column);
+
+}
@@ -0,0 +1,29 @@
+package me.twentybytes.zuki.api.result;
+
+/**
+ * Storage type of columnar result column.
+ */
+public enum ColumnType {
+
+    /**
+     * {@code int[]} chunks: tinyint, smallint, signed int and boolean columns.
+     */
+    INT,
+
+    /**
+     * {@code long[]} chunks: bigint and unsigned int columns, dates and times as epoch millis.
+     */
+    LONG,
+
+    /**
+     * {@code double[]} chunks: floating point and decimal columns (decimals lose exact precision).
+     */
+    DOUBLE,
+
+    /**
+     * {@code int[]} chunks of dictionary codes, every distinct value is stored once.
+     * Used for all other columns.
+     */
+    STRING
+
+}
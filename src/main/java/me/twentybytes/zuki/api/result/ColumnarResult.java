@@ -0,0 +1,50 @@
+package me.twentybytes.zuki.api.result;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Select result stored by columns in fixed size chunks of primitive arrays.
+ * Footprint is predictable: 4 or 8 bytes per value (4 per string value plus
+ * one instance of every distinct string) and one bit per value of columns with NULLs.
+ */
+public interface ColumnarResult {
+
+    /**
+     * @return rows count.
+     */
+    int rowCount();
+
+    /**
+     * @return columns count.
+     */
+    int columnCount();
+
+    /**
+     * @param column column number, starts from 1.
+     * @return       column label.
+     */
+    String columnName(int column);
+
+    /**
+     * @param column column number, starts from 1.
+     * @return       column storage type.
+     */
+    ColumnType columnType(int column);
+
+    /**
+     * @param name column label, case insensitive.
+     * @return     column number.
+     */
+    int columnIndex(@NotNull String name);
+
+    /**
+     * @return new cursor positioned before first row, cursors are independent.
+     */
+    ColumnCursor cursor();
+
+    /**
+     * @return approximate heap size of stored values in bytes.
+     */
+    long memory();
+
+}
@@ -0,0 +1,18 @@
+package me.twentybytes.zuki.api.routing;
+
+/**
+ * Replica selection strategy of select requests.
+ */
+public enum LoadBalancing {
+
+    /**
+     * Healthy replicas are used in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Healthy replica with the least active connections is used.
+     */
+    LEAST_IN_FLIGHT
+
+}
@@ -0,0 +1,62 @@
+package me.twentybytes.zuki.api.routing;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Settings of select requests routing to read replicas.
+ */
+@Getter @ToString
+public class ReplicaPolicy {
+
+    private LoadBalancing balancing = LoadBalancing.ROUND_ROBIN;
+    private long healthCheckInterval = 5000;
+    private int validationTimeout = 2;
+    private long maxLag = 30;
+
+    /**
+     * @param balancing replica selection strategy.
+     */
+    public ReplicaPolicy balancing(@NotNull LoadBalancing balancing) {
+        this.balancing = balancing;
+        return this;
+    }
+
+    /**
+     * @param interval time between replicas health checks.
+     */
+    public ReplicaPolicy healthCheckInterval(@NotNull Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Illegal health check interval: " + interval);
+        }
+        this.healthCheckInterval = interval.toMillis();
+        return this;
+    }
+
+    /**
+     * @param timeout connection validation timeout in seconds.
+     */
+    public ReplicaPolicy validationTimeout(int timeout) {
+        this.validationTimeout = Math.max(timeout, 1);
+        return this;
+    }
+
+    /**
+     * Replicas lagging behind primary more than max lag are excluded until they catch up.
+     * Lag is read from {@code SHOW REPLICA STATUS} ({@code SHOW SLAVE STATUS} on older servers).
+     *
+     * @param maxLag max replication lag in seconds, 0 or less disables lag checks.
+     */
+    public ReplicaPolicy maxLag(long maxLag) {
+        this.maxLag = maxLag;
+        return this;
+    }
+
+    public static ReplicaPolicy newBuilder() {
+        return new ReplicaPolicy();
+    }
+
+}
@@ -0,0 +1,119 @@
+package me.twentybytes.zuki.api.script;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Sql script specification: statements source and execution grouping.
+ * By default every statement is executed separately with autocommit.
+ */
+@Getter @ToString
+public class Script {
+
+    /**
+     * Opens script reader, called once on script thread.
+     */
+    @FunctionalInterface
+    public interface Source {
+        Reader open() throws IOException;
+    }
+
+    @ToString.Exclude
+    private final Source source;
+    private int batchSize = 1;
+    private int transactionSize;
+    private boolean stopOnError = true;
+    private long progressInterval = 1000;
+    @ToString.Exclude
+    private Consumer<ScriptResult> progress;
+    @ToString.Exclude
+    private StatementListener listener;
+
+    public Script(@NotNull Source source) {
+        this.source = source;
+    }
+
+    /**
+     * @param batchSize max statements count sent as one jdbc batch,
+     *                  statements returning results are always executed alone.
+     */
+    public Script batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param transactionSize statements count committed together, 0 keeps autocommit.
+     *                        Failed transaction is rolled back.
+     */
+    public Script transactionSize(int transactionSize) {
+        if (transactionSize < 0) {
+            throw new IllegalArgumentException("Illegal transaction size: " + transactionSize);
+        }
+        this.transactionSize = transactionSize;
+        return this;
+    }
+
+    /**
+     * @param stopOnError false skips failed statements and counts them in {@link ScriptResult#getFailed()}.
+     */
+    public Script stopOnError(boolean stopOnError) {
+        this.stopOnError = stopOnError;
+        return this;
+    }
+
+    /**
+     * @param interval statements count between progress reports.
+     * @param progress progress listener, called on script thread.
+     */
+    public Script progress(long interval, @NotNull Consumer<ScriptResult> progress) {
+        this.progressInterval = Math.max(interval, 1);
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * @param listener per statement timing listener.
+     */
+    public Script listener(@NotNull StatementListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * @param path utf-8 script file.
+     */
+    public static Script newBuilder(@NotNull Path path) {
+        return newBuilder(path, StandardCharsets.UTF_8);
+    }
+
+    public static Script newBuilder(@NotNull Path path, @NotNull Charset charset) {
+        return new Script(() -> Files.newBufferedReader(path, charset));
+    }
+
+    /**
+     * @param stream utf-8 script stream, closed after execution.
+     */
+    public static Script newBuilder(@NotNull InputStream stream) {
+        return new Script(() -> new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    public static Script newBuilder(@NotNull Source source) {
+        return new Script(source);
+    }
+
+}
@@ -0,0 +1,29 @@
+package me.twentybytes.zuki.api.script;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Script execution progress or result.
+ */
+@Getter @ToString
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ScriptResult {
+
+    long statements;
+    long failed;
+    long commits;
+    long elapsedNanos;
+
+    /**
+     * @return average execution speed.
+     */
+    public double statementsPerSecond() {
+        return elapsedNanos == 0 ? 0 : statements * 1_000_000_000D / elapsedNanos;
+    }
+
+}
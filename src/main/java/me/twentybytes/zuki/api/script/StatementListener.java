@@ -0,0 +1,21 @@
+package me.twentybytes.zuki.api.script;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives timing of every executed script statement.
+ */
+@FunctionalInterface
+public interface StatementListener {
+
+    /**
+     * Called on script thread after statement execution.
+     *
+     * @param sql          executed statement.
+     * @param line         line of script where statement starts.
+     * @param elapsedNanos execution time, batched statements get average time of their batch.
+     * @param failed       true if statement failed.
+     */
+    void onStatement(@NotNull String sql, long line, long elapsedNanos, boolean failed);
+
+}
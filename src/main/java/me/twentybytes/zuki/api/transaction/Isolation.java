@@ -0,0 +1,29 @@
+package me.twentybytes.zuki.api.transaction;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Connection;
+
+/**
+ * Transaction isolation levels.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Isolation {
+
+    /**
+     * Keeps connection isolation level (server default for pooled connections).
+     */
+    DEFAULT(-1),
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    /**
+     * Jdbc isolation level constant.
+     */
+    private final int level;
+
+}
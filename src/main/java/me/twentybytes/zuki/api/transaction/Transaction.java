@@ -0,0 +1,53 @@
+package me.twentybytes.zuki.api.transaction;
+
+import me.twentybytes.zuki.api.callback.SelectCallback;
+import me.twentybytes.zuki.api.request.Request;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Unit of work executed on one connection, committed or rolled back as a whole.
+ * All methods are blocking and must be called on transaction thread.
+ */
+public interface Transaction {
+
+    /**
+     * @param query executing update query.
+     * @param args  arguments for prepared statement.
+     * @return      update count.
+     */
+    int update(@NotNull @Language("SQL") String query, Object... args) throws SQLException;
+
+    /**
+     * @param query    executing select query.
+     * @param callback result callback, its exceptions roll transaction back.
+     * @param args     arguments for prepared statement.
+     */
+    void select(@NotNull @Language("SQL") String query, @NotNull SelectCallback callback, Object... args) throws SQLException;
+
+    /**
+     * @param query executing select query.
+     * @param type  row class, see {@code ZukiDatabase#select(Request, Class)}.
+     * @param args  arguments for prepared statement.
+     * @return      mapped rows.
+     */
+    <T> List<T> select(@NotNull @Language("SQL") String query, @NotNull Class<T> type, Object... args) throws SQLException;
+
+    /**
+     * Executes request body, arguments and callback inside transaction,
+     * other request settings (queue, sync, cache, timeout) are ignored.
+     *
+     * @param request executing request.
+     */
+    void execute(@NotNull Request request) throws SQLException;
+
+    /**
+     * @return transaction connection, must not be closed or committed.
+     */
+    Connection connection();
+
+}
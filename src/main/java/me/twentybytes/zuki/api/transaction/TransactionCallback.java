@@ -0,0 +1,14 @@
+package me.twentybytes.zuki.api.transaction;
+
+/**
+ * Body of transaction. May be called several times if transaction is retried,
+ * so it must not have side effects outside of database.
+ *
+ * @param <T> transaction result type.
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    T run(Transaction transaction) throws Throwable;
+
+}
@@ -0,0 +1,91 @@
+package me.twentybytes.zuki.api.transaction;
+
+import lombok.Getter;
+import lombok.ToString;
+import me.twentybytes.zuki.api.request.Priority;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Settings of transaction: isolation level, retries of deadlocked
+ * or serialization-failed transactions and request settings (timeout,
+ * admission priority and metrics label) of whole transaction.
+ */
+@Getter @ToString
+public class TransactionPolicy {
+
+    private Isolation isolation = Isolation.DEFAULT;
+    private boolean readOnly;
+    private int maxRetries = 3;
+    private long retryDelay = 10;
+    private long timeout;
+    private Priority priority = Priority.NORMAL;
+    private String label = "transaction";
+
+    /**
+     * @param isolation transaction isolation level.
+     */
+    public TransactionPolicy isolation(@NotNull Isolation isolation) {
+        this.isolation = isolation;
+        return this;
+    }
+
+    /**
+     * @param readOnly read only hint, lets server skip transaction id assignment.
+     */
+    public TransactionPolicy readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    /**
+     * @param maxRetries max retries of whole transaction after deadlock, lock wait
+     *                   timeout or serialization failure, 0 disables retries.
+     */
+    public TransactionPolicy maxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Illegal retries count: " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * @param delay base delay before retry, doubled on every next retry with random jitter.
+     */
+    public TransactionPolicy retryDelay(@NotNull Duration delay) {
+        this.retryDelay = Math.max(delay.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param timeout max time of whole transaction including retries, running statement
+     *                is cancelled when it passes. Zero disables timeout.
+     */
+    public TransactionPolicy timeout(@NotNull Duration timeout) {
+        this.timeout = Math.max(timeout.toMillis(), 0);
+        return this;
+    }
+
+    /**
+     * @param priority priority of transaction waiting for admission.
+     */
+    public TransactionPolicy priority(@NotNull Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * @param label metrics label of transaction.
+     */
+    public TransactionPolicy label(@NotNull String label) {
+        this.label = label;
+        return this;
+    }
+
+    public static TransactionPolicy newBuilder() {
+        return new TransactionPolicy();
+    }
+
+}
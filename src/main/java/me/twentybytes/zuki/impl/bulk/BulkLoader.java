@@ -0,0 +1,193 @@
+package me.twentybytes.zuki.impl.bulk;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.bulk.BulkLoad;
+import me.twentybytes.zuki.api.bulk.BulkLoadResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Executes {@link BulkLoad}: rows are streamed through mysql {@code LOAD DATA LOCAL INFILE}
+ * (requires {@code allowLoadLocalInfile=true} on connection and {@code local_infile} on server),
+ * or loaded by chunked multi-row inserts when local infile is disabled or unsupported.
+ */
+@Slf4j
+@UtilityClass
+public class BulkLoader {
+
+    /**
+     * @param connection loading connection.
+     * @param load       bulk load specification.
+     * @return           load result.
+     */
+    public BulkLoadResult load(@NotNull Connection connection, @NotNull BulkLoad load) throws SQLException {
+        try {
+            return execute(connection, load);
+        } catch (Throwable throwable) {
+            cancel(load);
+            throw throwable;
+        }
+    }
+
+    /**
+     * Stops rows publisher of failed or not started load, so it does not keep producing rows.
+     *
+     * @param load bulk load specification.
+     */
+    public void cancel(@NotNull BulkLoad load) {
+        if (load.getRows() instanceof PublisherIterator<?> iterator) {
+            iterator.cancel();
+        }
+    }
+
+    private BulkLoadResult execute(Connection connection, BulkLoad load) throws SQLException {
+        long start = System.nanoTime();
+        if (load.isLocalInfile()) {
+            try (Statement statement = connection.createStatement()) {
+                if (statement.isWrapperFor(JdbcStatement.class)) {
+                    Progress progress = new Progress(load, BulkLoadResult.Method.LOCAL_INFILE, start);
+                    TsvInputStream stream = new TsvInputStream(load.getRows(), load.getColumns().length, progress::row);
+                    statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(stream);
+
+                    try {
+                        statement.execute(loadDataQuery(load));
+                        return new BulkLoadResult(BulkLoadResult.Method.LOCAL_INFILE, stream.rows(), System.nanoTime() - start);
+                    } catch (SQLException exception) {
+                        // rows already sent can not be replayed.
+                        if (stream.rows() > 0 || !isLocalInfileDisabled(exception)) {
+                            throw exception;
+                        }
+                        log.warn("Local infile is disabled, bulk load falls back to inserts. Message: " + exception.getMessage());
+                    }
+                }
+            }
+        }
+
+        return insert(connection, load, start);
+    }
+
+    private BulkLoadResult insert(Connection connection, BulkLoad load, long start) throws SQLException {
+        Progress progress = new Progress(load, BulkLoadResult.Method.INSERT, start);
+        Iterator<Object[]> rows = load.getRows();
+        int width = load.getColumns().length;
+        List<Object[]> chunk = new ArrayList<>(load.getChunkSize());
+        long count = 0;
+
+        try (PreparedStatement full = connection.prepareStatement(insertQuery(load, load.getChunkSize()))) {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (row.length != width) {
+                    throw new IllegalArgumentException("Row width " + row.length + " does not match columns count " + width);
+                }
+
+                chunk.add(row);
+                if (chunk.size() == load.getChunkSize()) {
+                    execute(full, chunk, progress);
+                    count += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            try (PreparedStatement tail = connection.prepareStatement(insertQuery(load, chunk.size()))) {
+                execute(tail, chunk, progress);
+                count += chunk.size();
+            }
+        }
+        return new BulkLoadResult(BulkLoadResult.Method.INSERT, count, System.nanoTime() - start);
+    }
+
+    private void execute(PreparedStatement statement, List<Object[]> chunk, Progress progress) throws SQLException {
+        int index = 1;
+        for (Object[] row : chunk) {
+            for (Object value : row) {
+                statement.setObject(index++, value);
+            }
+        }
+        statement.executeUpdate();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            progress.row();
+        }
+    }
+
+    private String loadDataQuery(BulkLoad load) {
+        return "LOAD DATA LOCAL INFILE 'zuki-bulk-load' INTO TABLE " + quote(load.getTable())
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' "
+                + columns(load);
+    }
+
+    private String insertQuery(BulkLoad load, int rows) {
+        StringBuilder tuple = new StringBuilder("(");
+        for (int i = 0; i < load.getColumns().length; i++) {
+            tuple.append(i == 0 ? "?" : ", ?");
+        }
+        tuple.append(')');
+
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(quote(load.getTable()))
+                .append(' ').append(columns(load)).append(" VALUES ");
+        for (int i = 0; i < rows; i++) {
+            query.append(i == 0 ? "" : ", ").append(tuple);
+        }
+        return query.toString();
+    }
+
+    private String columns(BulkLoad load) {
+        StringBuilder columns = new StringBuilder("(");
+        for (int i = 0; i < load.getColumns().length; i++) {
+            columns.append(i == 0 ? "" : ", ").append(quote(load.getColumns()[i]));
+        }
+        return columns.append(')').toString();
+    }
+
+    private String quote(String identifier) {
+        return '`' + identifier.replace("`", "``") + '`';
+    }
+
+    private boolean isLocalInfileDisabled(SQLException exception) {
+        // ER_NOT_ALLOWED_COMMAND, ER_CLIENT_LOCAL_FILES_DISABLED, CR_LOAD_DATA_LOCAL_INFILE_REJECTED
+        int code = exception.getErrorCode();
+        if (code == 1148 || code == 3948 || code == 2068) {
+            return true;
+        }
+
+        String message = exception.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("local data is disabled");
+    }
+
+    /**
+     * Reports progress every configured rows count.
+     */
+    private static class Progress {
+
+        final BulkLoad load;
+        final BulkLoadResult.Method method;
+        final long start;
+        long rows;
+
+        Progress(BulkLoad load, BulkLoadResult.Method method, long start) {
+            this.load = load;
+            this.method = method;
+            this.start = start;
+        }
+
+        void row() {
+            if (++rows % load.getProgressInterval() == 0 && load.getProgress() != null) {
+                load.getProgress().accept(new BulkLoadResult(method, rows, System.nanoTime() - start));
+            }
+        }
+
+    }
+
+}
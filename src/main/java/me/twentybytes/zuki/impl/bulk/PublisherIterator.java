@@ -0,0 +1,123 @@
+package me.twentybytes.zuki.impl.bulk;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Blocking iterator over publisher. Publisher is subscribed on first
+ * {@link #hasNext()} and never has more than prefetch items requested ahead.
+ *
+ * @param <T> item type.
+ */
+public class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final Flow.Publisher<T> publisher;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final int prefetch;
+    private final int limit;
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private boolean subscribed;
+    private int consumed;
+    private Object next;
+
+    public PublisherIterator(@NotNull Flow.Publisher<T> publisher, int prefetch) {
+        this.publisher = publisher;
+        this.prefetch = Math.max(prefetch, 1);
+        this.limit = Math.max(this.prefetch - this.prefetch / 4, 1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (!subscribed) {
+                subscribed = true;
+                publisher.subscribe(this);
+            }
+
+            try {
+                next = queue.take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Interrupted while waiting for rows", exception);
+            }
+        }
+
+        if (next instanceof Failure failure) {
+            throw new IllegalStateException("Rows publisher failed", failure.throwable);
+        }
+        return next != COMPLETE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T item = (T) next;
+        next = null;
+        if (++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+        return item;
+    }
+
+    /**
+     * Cancels subscription if iteration is stopped early. Publisher which was not
+     * subscribed yet is subscribed and cancelled at once, so it does not wait for subscriber.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (!subscribed) {
+            subscribed = true;
+            publisher.subscribe(this);
+            return;
+        }
+
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(prefetch);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        queue.offer(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        queue.offer(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        queue.offer(COMPLETE);
+    }
+
+    private record Failure(Throwable throwable) {
+    }
+
+}
@@ -0,0 +1,238 @@
+package me.twentybytes.zuki.impl.bulk;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+
+/**
+ * Encodes rows on the fly into mysql {@code LOAD DATA} default text format:
+ * tab separated fields, new line terminated rows, backslash escapes and {@code \N} for null.
+ * Temporal values are written as mysql literals ({@code 2024-01-31 23:59:59.000000}) with
+ * microseconds precision, instants and zoned values are converted to JVM default time zone
+ * as connector does for inserts.
+ * <p>
+ * Rows which can't be encoded fail reading with {@link IOException}, so driver ends
+ * file transfer cleanly and reports failure as {@link java.sql.SQLException}.
+ */
+public class TsvInputStream extends InputStream {
+
+    private final Iterator<Object[]> rows;
+    private final int columns;
+    private final Runnable onRow;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSS");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS");
+
+    private final StringBuilder text = new StringBuilder(64);
+
+    private byte[] buffer = new byte[256];
+    private int limit;
+    private int position;
+    private long count;
+
+    /**
+     * @param rows    rows source.
+     * @param columns expected row width.
+     * @param onRow   called after every encoded row.
+     */
+    public TsvInputStream(@NotNull Iterator<Object[]> rows, int columns, @NotNull Runnable onRow) {
+        this.rows = rows;
+        this.columns = columns;
+        this.onRow = onRow;
+    }
+
+    /**
+     * @return count of rows encoded so far.
+     */
+    public long rows() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte @NotNull [] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int read = 0;
+        while (read < length) {
+            if (position == limit && !fill()) {
+                break;
+            }
+
+            int chunk = Math.min(length - read, limit - position);
+            System.arraycopy(buffer, position, target, offset + read, chunk);
+            position += chunk;
+            read += chunk;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    private boolean fill() throws IOException {
+        Object[] row;
+        try {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            row = rows.next();
+        } catch (RuntimeException exception) {
+            // unchecked exception would escape driver in the middle of file transfer.
+            throw new IOException("Rows source failed: " + exception.getMessage(), exception);
+        }
+
+        if (row.length != columns) {
+            throw new IOException("Row width " + row.length + " does not match columns count " + columns);
+        }
+
+        limit = 0;
+        position = 0;
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                write((byte) '\t');
+            }
+            append(row[i]);
+        }
+        write((byte) '\n');
+
+        count++;
+        onRow.run();
+        return true;
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            write((byte) '\\');
+            write((byte) 'N');
+            return;
+        }
+
+        if (value instanceof Boolean bool) {
+            write((byte) (bool ? '1' : '0'));
+            return;
+        }
+
+        if (value instanceof byte[] bytes) {
+            for (byte b : bytes) {
+                escape(b);
+            }
+            return;
+        }
+
+        if (value instanceof Number) {
+            writeAscii(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+            return;
+        }
+
+        String temporal = temporal(value);
+        if (temporal != null) {
+            writeAscii(temporal);
+            return;
+        }
+
+        // special characters are ascii, so escaping before encoding is safe.
+        String string = value.toString();
+        text.setLength(0);
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\t' -> text.append("\\t");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\0' -> text.append("\\0");
+                default -> text.append(c);
+            }
+        }
+
+        byte[] encoded = text.toString().getBytes(StandardCharsets.UTF_8);
+        ensure(encoded.length);
+        System.arraycopy(encoded, 0, buffer, limit, encoded.length);
+        limit += encoded.length;
+    }
+
+    /**
+     * @return mysql literal of temporal value or null if value is not temporal.
+     */
+    private static String temporal(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME.format(dateTime);
+        } else if (value instanceof LocalDate date) {
+            return date.toString();
+        } else if (value instanceof LocalTime time) {
+            return TIME.format(time);
+        } else if (value instanceof Instant instant) {
+            return DATE_TIME.format(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()));
+        } else if (value instanceof OffsetDateTime dateTime) {
+            return DATE_TIME.format(dateTime.atZoneSameInstant(ZoneId.systemDefault()));
+        } else if (value instanceof ZonedDateTime dateTime) {
+            return DATE_TIME.format(dateTime.withZoneSameInstant(ZoneId.systemDefault()));
+        } else if (value instanceof java.sql.Timestamp timestamp) {
+            return DATE_TIME.format(timestamp.toLocalDateTime());
+        } else if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        } else if (value instanceof java.sql.Time time) {
+            return TIME.format(time.toLocalTime());
+        } else if (value instanceof Date date) {
+            return DATE_TIME.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+        }
+        return null;
+    }
+
+    private void escape(byte b) {
+        byte escaped = switch (b) {
+            case '\\' -> '\\';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\r' -> 'r';
+            case 0 -> '0';
+            default -> 0;
+        };
+
+        if (escaped == 0) {
+            write(b);
+        } else {
+            write((byte) '\\');
+            write(escaped);
+        }
+    }
+
+    private void writeAscii(String string) {
+        ensure(string.length());
+        for (int i = 0; i < string.length(); i++) {
+            buffer[limit++] = (byte) string.charAt(i);
+        }
+    }
+
+    private void write(byte b) {
+        ensure(1);
+        buffer[limit++] = b;
+    }
+
+    private void ensure(int length) {
+        if (limit + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + length));
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package me.twentybytes.zuki.impl.cache;
+
+import me.twentybytes.zuki.api.request.ArgumentBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Query identity: body and arguments.
+ */
+final class QueryKey {
+
+    final String body;
+    final Object[] args;
+    final int hash;
+
+    QueryKey(String body, Object[] args) {
+        this.body = body;
+        this.args = args;
+        this.hash = 31 * body.hashCode() + Arrays.deepHashCode(args);
+    }
+
+    /**
+     * @param args query arguments.
+     * @return     copy of arguments safe to keep after request is completed.
+     */
+    static Object[] copy(Object[] args) {
+        Object[] copy = args.clone();
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] instanceof ArgumentBuffer buffer) {
+                copy[i] = buffer.copy();
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof QueryKey key && key.hash == hash && key.body.equals(body) && Arrays.deepEquals(key.args, args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
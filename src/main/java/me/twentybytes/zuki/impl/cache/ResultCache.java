@@ -0,0 +1,241 @@
+package me.twentybytes.zuki.impl.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.rowset.CachedRowSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of select results with per-entry ttl
+ * and invalidation by table names.
+ * <p>
+ * Reads are lock free: hit only stamps entry access time. Writes and invalidations
+ * are serialized, when size exceeds max size least recently read entries are evicted
+ * in batch of 1/16 of max size (approximate LRU).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ResultCache {
+
+    final Map<QueryKey, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Guarded by this.
+     */
+    final Map<String, Set<QueryKey>> tables = new HashMap<>();
+
+    /**
+     * Incremented on every invalidation, results read before invalidation are not stored.
+     */
+    final AtomicLong generation = new AtomicLong();
+
+    @Getter
+    volatile int maxSize;
+
+    @Getter final LongAdder hits = new LongAdder();
+    @Getter final LongAdder misses = new LongAdder();
+    @Getter final LongAdder evictions = new LongAdder();
+    @Getter final LongAdder invalidations = new LongAdder();
+
+    public ResultCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param body query body.
+     * @param args query arguments.
+     * @return     cached rows or null.
+     */
+    public CachedRowSet get(@NotNull String body, @NotNull Object[] args) {
+        QueryKey key = new QueryKey(body, args);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (entry.expiresAt - now > 0) {
+                entry.accessedAt = now;
+                hits.increment();
+                return entry.rows;
+            }
+
+            synchronized (this) {
+                remove(key, entry);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * @return current generation, must be read before query execution.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param body       query body.
+     * @param args       query arguments.
+     * @param rows       detached rows.
+     * @param ttl        time to live in nanos.
+     * @param tables     tables read by query.
+     * @param generation generation read before query execution.
+     */
+    public void put(@NotNull String body, @NotNull Object[] args, @NotNull CachedRowSet rows, long ttl,
+                    @NotNull String[] tables, long generation) {
+        QueryKey key = new QueryKey(body, QueryKey.copy(args));
+        long now = System.nanoTime();
+        Entry entry = new Entry(rows, now + ttl, normalize(Arrays.asList(tables)));
+        entry.accessedAt = now;
+
+        synchronized (this) {
+            if (this.generation.get() != generation || maxSize <= 0) {
+                return;
+            }
+
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            for (String table : entry.tables) {
+                this.tables.computeIfAbsent(table, ignored -> new HashSet<>()).add(key);
+            }
+
+            if (entries.size() > maxSize) {
+                evict(maxSize - maxSize / 16);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries which read any of specified tables.
+     *
+     * @param tables changed tables.
+     */
+    public void invalidate(@NotNull String... tables) {
+        if (tables.length == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            generation.incrementAndGet();
+            for (String table : normalize(Arrays.asList(tables))) {
+                Set<QueryKey> keys = this.tables.remove(table);
+                if (keys == null) {
+                    continue;
+                }
+
+                for (QueryKey key : keys) {
+                    Entry entry = entries.remove(key);
+                    if (entry != null) {
+                        unindex(key, entry);
+                        invalidations.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        tables.clear();
+    }
+
+    /**
+     * @param maxSize max entries count, 0 disables caching.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        if (entries.size() > maxSize) {
+            evict(maxSize);
+        }
+    }
+
+    /**
+     * @return current entries count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Evicts least recently read entries, must be called holding this.
+     *
+     * @param size entries count to keep.
+     */
+    private void evict(int size) {
+        // access times are copied, as hits keep updating them while sorting.
+        List<Candidate> eldest = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) -> eldest.add(new Candidate(key, entry, entry.accessedAt)));
+        eldest.sort((first, second) -> Long.compare(first.accessedAt - second.accessedAt, 0));
+        for (int i = 0; i < eldest.size() - size; i++) {
+            Candidate candidate = eldest.get(i);
+            if (entries.remove(candidate.key, candidate.entry)) {
+                unindex(candidate.key, candidate.entry);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(QueryKey key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(QueryKey key, Entry entry) {
+        for (String table : entry.tables) {
+            Set<QueryKey> keys = tables.get(table);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    tables.remove(table);
+                }
+            }
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> tables) {
+        Set<String> normalized = new HashSet<>();
+        for (String table : tables) {
+            normalized.add(table.toLowerCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Entry {
+
+        final CachedRowSet rows;
+        final long expiresAt;
+        final Set<String> tables;
+
+        /**
+         * Written racy on hits, eviction order is approximate.
+         */
+        volatile long accessedAt;
+
+    }
+
+    private record Candidate(QueryKey key, Entry entry, long accessedAt) {
+    }
+
+}
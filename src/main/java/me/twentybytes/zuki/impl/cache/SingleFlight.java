@@ -0,0 +1,95 @@
+package me.twentybytes.zuki.impl.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.rowset.CachedRowSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplication of identical concurrent selects. First select of query becomes
+ * flight leader and executes it, selects with the same body and arguments submitted
+ * before leader is done wait for its detached rows instead of taking own connection.
+ * Primary-pinned and replica-routed selects never share flights.
+ */
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class SingleFlight {
+
+    ConcurrentMap<QueryKey, Flight> routed = new ConcurrentHashMap<>();
+    ConcurrentMap<QueryKey, Flight> primary = new ConcurrentHashMap<>();
+
+    @Getter LongAdder executions = new LongAdder();
+    @Getter LongAdder shared = new LongAdder();
+
+    /**
+     * Execution of query shared by concurrent selects.
+     */
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    public static final class Flight {
+
+        ConcurrentMap<QueryKey, Flight> flights;
+        QueryKey key;
+        @Getter boolean leader;
+        @Getter CompletableFuture<CachedRowSet> result;
+
+        private Flight(ConcurrentMap<QueryKey, Flight> flights, QueryKey key, boolean leader, CompletableFuture<CachedRowSet> result) {
+            this.flights = flights;
+            this.key = key;
+            this.leader = leader;
+            this.result = result;
+        }
+
+        /**
+         * Completes flight, called by leader only. Flight is removed first, so selects submitted
+         * after completion execute query again and never see older rows.
+         *
+         * @param rows detached rows.
+         */
+        public void complete(@NotNull CachedRowSet rows) {
+            flights.remove(key, this);
+            result.complete(rows);
+        }
+
+        /**
+         * @param throwable leader failure, passed to all waiting selects.
+         */
+        public void fail(@NotNull Throwable throwable) {
+            flights.remove(key, this);
+            result.completeExceptionally(throwable);
+        }
+
+    }
+
+    /**
+     * @param body    query body.
+     * @param args    query arguments.
+     * @param primary true if select is pinned to primary database.
+     * @return        new flight which caller leads, or running flight of the same query.
+     */
+    public Flight join(@NotNull String body, @NotNull Object[] args, boolean primary) {
+        ConcurrentMap<QueryKey, Flight> flights = primary ? this.primary : this.routed;
+        QueryKey key = new QueryKey(body, QueryKey.copy(args));
+        Flight created = new Flight(flights, key, true, new CompletableFuture<>());
+        Flight running = flights.putIfAbsent(key, created);
+        if (running == null) {
+            executions.increment();
+            return created;
+        }
+
+        shared.increment();
+        return new Flight(flights, key, false, running.result);
+    }
+
+    /**
+     * @return count of running flights.
+     */
+    public int size() {
+        return routed.size() + primary.size();
+    }
+
+}
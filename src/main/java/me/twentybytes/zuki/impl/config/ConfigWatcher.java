@@ -0,0 +1,101 @@
+package me.twentybytes.zuki.impl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.impl.execution.Threads;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config file and runs reload when its content changes. Directory of file is
+ * watched, so files replaced by rename (editors, mounted configs) are seen too. Reload
+ * runs on watcher thread after debounce period without further changes.
+ */
+@Slf4j
+public class ConfigWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final long debounce;
+    private final Runnable reload;
+    private final WatchService service;
+    private final Thread thread;
+    private byte[] content;
+
+    /**
+     * @param file     watched config file.
+     * @param debounce quiet period after change in millis.
+     * @param reload   reload action, called on watcher thread.
+     * @throws IOException if directory of file can not be watched.
+     */
+    public ConfigWatcher(@NotNull File file, long debounce, @NotNull Runnable reload) throws IOException {
+        this.file = file.toPath().toAbsolutePath();
+        this.debounce = debounce;
+        this.reload = reload;
+        this.content = read();
+        this.service = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.OVERFLOW);
+        this.thread = Threads.daemon("zuki-config").newThread(this::watch);
+        this.thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                key.pollEvents();
+                key.reset();
+
+                // wait until writes are done.
+                while ((key = service.poll(debounce, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+
+                byte[] content = read();
+                if (content == null || Arrays.equals(content, this.content)) {
+                    continue;
+                }
+                this.content = content;
+
+                log.info("Config file {} is changed, reloading", file);
+                try {
+                    reload.run();
+                } catch (Throwable throwable) {
+                    log.error("Config reload failed, current pools are kept", throwable);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // closed.
+        }
+    }
+
+    private byte[] read() {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException exception) {
+            // file is being replaced.
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            service.close();
+        } catch (IOException exception) {
+            log.warn("Config watcher close failed", exception);
+        }
+        thread.interrupt();
+    }
+
+}
@@ -2,9 +2,13 @@ package me.twentybytes.zuki.impl.config;
 
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.api.config.PoolConfig;
 import me.twentybytes.zuki.api.config.ZukiConfig;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Simply implementation from {@link ZukiConfig}
  * Used for config parsing.
@@ -17,13 +21,27 @@ public class SimpleZukiConfig implements ZukiConfig {
     String username;
     String password;
     int port;
+    List<ZukiConfig> replicas;
+    PoolConfig pool;
 
     public SimpleZukiConfig(@NotNull String address, int port, @NotNull String database, @NotNull String username, @NotNull String password) {
+        this(address, port, database, username, password, Collections.emptyList());
+    }
+
+    public SimpleZukiConfig(@NotNull String address, int port, @NotNull String database, @NotNull String username, @NotNull String password,
+                            @NotNull List<ZukiConfig> replicas) {
+        this(address, port, database, username, password, replicas, PoolConfig.newBuilder());
+    }
+
+    public SimpleZukiConfig(@NotNull String address, int port, @NotNull String database, @NotNull String username, @NotNull String password,
+                            @NotNull List<ZukiConfig> replicas, @NotNull PoolConfig pool) {
         this.address = address;
         this.database = database;
         this.username = username;
         this.password = password;
         this.port = port;
+        this.replicas = List.copyOf(replicas);
+        this.pool = pool;
     }
 
     @Override
@@ -51,4 +69,14 @@ public class SimpleZukiConfig implements ZukiConfig {
         return port;
     }
 
+    @Override
+    public List<ZukiConfig> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public PoolConfig pool() {
+        return pool;
+    }
+
 }
@@ -2,17 +2,33 @@ package me.twentybytes.zuki.impl.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import lombok.SneakyThrows;
+import me.twentybytes.zuki.api.config.ConfigType;
+import me.twentybytes.zuki.api.config.PoolConfig;
 import me.twentybytes.zuki.api.config.ZukiConfig;
 import me.twentybytes.zuki.api.database.ZukiDatabase;
+import me.twentybytes.zuki.api.pool.AdaptivePoolPolicy;
+import me.twentybytes.zuki.impl.config.ConfigWatcher;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 public class SimpleZukiDatabase extends ZukiDatabase {
 
+    /**
+     * Config file watcher, null if config is not watched.
+     */
+    private ConfigWatcher watcher;
+
     /**
      * @param config zuki connection config.
      */
     public SimpleZukiDatabase(@NotNull ZukiConfig config) {
-        this(config.address(), config.port(), config.database(), config.username(), config.password());
+        this(url(config.address(), config.port(), config.database()), config.username(), config.password(), config.pool());
+
+        replicas(replicaConfigs(config));
+        adaptivePool(config.pool().getAdaptive());
     }
 
     /**
@@ -33,7 +49,7 @@ public class SimpleZukiDatabase extends ZukiDatabase {
      * @param password connection user password.
      */
     public SimpleZukiDatabase(@NotNull String address, int port, @NotNull String database, @NotNull String username, @NotNull String password) {
-        this(String.format("jdbc:mysql://%s:%s/%s", address, port, database), username, password);
+        this(url(address, port, database), username, password);
     }
 
     /**
@@ -41,11 +57,113 @@ public class SimpleZukiDatabase extends ZukiDatabase {
      * @param username connection username.
      * @param password connection user password.
      */
-    @SneakyThrows
     public SimpleZukiDatabase(@NotNull String url, @NotNull String username, @NotNull String password) {
+        this(url, username, password, PoolConfig.newBuilder());
+    }
+
+    /**
+     * @param url      formatted connection url.
+     * @param username connection username.
+     * @param password connection user password.
+     * @param pool     connection pool and driver settings.
+     */
+    @SneakyThrows
+    public SimpleZukiDatabase(@NotNull String url, @NotNull String username, @NotNull String password, @NotNull PoolConfig pool) {
         // preload driver class
         Class.forName("com.mysql.jdbc.Driver");
-        
+
+        // Sets config for super class.
+        setConfig(createConfig(url, username, password, pool));
+    }
+
+    /**
+     * Replaces running pools by pools of config: primary, replicas and pool settings.
+     * If new primary pool is not available, running pools and settings are kept.
+     *
+     * @param config zuki connection config.
+     * @see #reload(HikariConfig)
+     */
+    @SneakyThrows
+    public synchronized ZukiDatabase reload(@NotNull ZukiConfig config) {
+        List<HikariConfig> replicas = replicaConfigs;
+        AdaptivePoolPolicy adaptive = adaptivePolicy;
+        try {
+            replicas(replicaConfigs(config));
+            adaptivePool(config.pool().getAdaptive());
+            return reload(createConfig(url(config.address(), config.port(), config.database()), config.username(), config.password(), config.pool()));
+        } catch (Throwable throwable) {
+            replicas(replicas);
+            adaptivePool(adaptive);
+            throw throwable;
+        }
+    }
+
+    /**
+     * Watches config file and reloads pools when file content changes, so credentials
+     * rotation or failover do not require restart. Closing database stops watching.
+     *
+     * @param file config file.
+     * @param type config parser.
+     * @see #reload(ZukiConfig)
+     */
+    @SneakyThrows
+    public SimpleZukiDatabase watch(@NotNull File file, @NotNull ConfigType type) {
+        if (watcher != null) {
+            watcher.close();
+        }
+        watcher = new ConfigWatcher(file, reloadPolicy.getDebounce(), () -> reload(ZukiConfig.from(file, type)));
+        return this;
+    }
+
+    @Override
+    public synchronized ZukiDatabase close() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+        return super.close();
+    }
+
+    /**
+     * @param config zuki connection config.
+     * @return       pool configs of config replicas.
+     */
+    protected static List<HikariConfig> replicaConfigs(@NotNull ZukiConfig config) {
+        List<HikariConfig> replicas = new ArrayList<>();
+        for (ZukiConfig replica : config.replicas()) {
+            replicas.add(createConfig(url(replica.address(), replica.port(), replica.database()), replica.username(), replica.password(), replica.pool()));
+        }
+        return replicas;
+    }
+
+    /**
+     * @param address  connection address.
+     * @param port     connection port.
+     * @param database connection database name.
+     * @return         formatted connection url.
+     */
+    protected static String url(@NotNull String address, int port, @NotNull String database) {
+        return String.format("jdbc:mysql://%s:%s/%s", address, port, database);
+    }
+
+    /**
+     * @param url      formatted connection url.
+     * @param username connection username.
+     * @param password connection user password.
+     * @return         pool config of primary or replica database with default pool settings.
+     */
+    protected static HikariConfig createConfig(@NotNull String url, @NotNull String username, @NotNull String password) {
+        return createConfig(url, username, password, PoolConfig.newBuilder());
+    }
+
+    /**
+     * @param url      formatted connection url.
+     * @param username connection username.
+     * @param password connection user password.
+     * @param pool     connection pool and driver settings.
+     * @return         pool config of primary or replica database.
+     */
+    protected static HikariConfig createConfig(@NotNull String url, @NotNull String username, @NotNull String password, @NotNull PoolConfig pool) {
         HikariConfig config = new HikariConfig();
 
         // Connection data
@@ -53,21 +171,9 @@ public class SimpleZukiDatabase extends ZukiDatabase {
         config.setUsername(username);
         config.setPassword(password);
 
-        // Max active connections count.
-        config.setMaximumPoolSize(6);
-
-        // Connection die time.
-        config.setLeakDetectionThreshold(10000L);
-
-        // Simply caching for improve prepare speed similar statements.
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "50");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "512");
-        config.addDataSourceProperty("characterEncoding","utf8");
-        config.addDataSourceProperty("useUnicode","true");
-
-        // Sets config for super class.
-        setConfig(config);
+        // Pool size, timeouts and driver properties.
+        pool.apply(config);
+        return config;
     }
 
 }
@@ -0,0 +1,200 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.Getter;
+import me.twentybytes.zuki.api.execution.AdmissionPolicy;
+import me.twentybytes.zuki.api.execution.OverflowAction;
+import me.twentybytes.zuki.api.request.Priority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounds count of running requests. Requests above in-flight limit wait in
+ * per-priority queues and are started on executor when running requests complete,
+ * requests above queue limit are handled by policy overflow action.
+ */
+public class AdmissionControl {
+
+    /**
+     * Request waiting for admission.
+     */
+    private static class Entry {
+        final Function<Executor, CompletableFuture<Void>> start;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        Entry(Function<Executor, CompletableFuture<Void>> start) {
+            this.start = start;
+        }
+    }
+
+    @Getter
+    private final AdmissionPolicy policy;
+    private final Executor executor;
+    // waiting requests by priority ordinal.
+    private final List<ArrayDeque<Entry>> queues;
+
+    // guarded by this.
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param policy   admission limits.
+     * @param executor executor of requests started after waiting, must not run tasks on caller thread.
+     */
+    public AdmissionControl(@NotNull AdmissionPolicy policy, @NotNull Executor executor) {
+        this.policy = policy;
+        this.executor = executor;
+        this.queues = new ArrayList<>(Priority.values().length);
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * @param priority request priority.
+     * @param admitted executor of request admitted immediately.
+     * @param start    starts request on given executor and returns its completion future.
+     * @return         future completed when request completes, or exceptionally
+     *                 with {@link RejectedExecutionException} if request is rejected or dropped.
+     */
+    public CompletableFuture<Void> submit(@NotNull Priority priority, @NotNull Executor admitted,
+                                          @NotNull Function<Executor, CompletableFuture<Void>> start) {
+        Entry victim;
+        CompletableFuture<Void> result;
+        synchronized (this) {
+            if (inFlight < policy.getMaxInFlight()) {
+                inFlight++;
+                victim = null;
+                result = null;
+            } else if (queued < policy.getMaxQueued()) {
+                return enqueue(priority, start);
+            } else if (policy.getOverflow() == OverflowAction.CALLER_RUNS) {
+                // counted, so completion does not start more requests than limit allows.
+                inFlight++;
+                admitted = RequestContext.DIRECT;
+                victim = null;
+                result = null;
+            } else if (policy.getOverflow() == OverflowAction.DROP_OLDEST && (victim = dropOldest(priority)) != null) {
+                result = enqueue(priority, start);
+            } else {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Request rejected: " + inFlight + " in flight, " + queued + " queued"));
+            }
+        }
+
+        // requests are started and dropped outside of lock, sync ones run right here.
+        if (victim == null) {
+            return run(admitted, start);
+        }
+        dropped.increment();
+        victim.result.completeExceptionally(new RejectedExecutionException("Request dropped by newer request"));
+        return result;
+    }
+
+    private CompletableFuture<Void> enqueue(Priority priority, Function<Executor, CompletableFuture<Void>> start) {
+        Entry entry = new Entry(start);
+        queues.get(priority.ordinal()).offer(entry);
+        queued++;
+        return entry.result;
+    }
+
+    private Entry dropOldest(Priority priority) {
+        for (int i = queues.size() - 1; i >= priority.ordinal(); i--) {
+            Entry entry = queues.get(i).poll();
+            if (entry != null) {
+                queued--;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<Void> run(Executor executor, Function<Executor, CompletableFuture<Void>> start) {
+        CompletableFuture<Void> future;
+        try {
+            future = start.apply(executor);
+        } catch (Throwable throwable) {
+            release();
+            return CompletableFuture.failedFuture(throwable);
+        }
+        return future.whenComplete((ignored, throwable) -> release());
+    }
+
+    private void release() {
+        Entry next;
+        synchronized (this) {
+            next = poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+
+        // released slot is passed to the next request, which runs on executor thread,
+        // so completing thread never runs other requests.
+        try {
+            executor.execute(() -> run(RequestContext.DIRECT, next.start).whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    next.result.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                } else {
+                    next.result.complete(null);
+                }
+            }));
+        } catch (RejectedExecutionException exception) {
+            next.result.completeExceptionally(exception);
+            release();
+        }
+    }
+
+    private Entry poll() {
+        for (ArrayDeque<Entry> queue : queues) {
+            Entry entry = queue.poll();
+            if (entry != null) {
+                queued--;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return count of running requests.
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return count of requests waiting for admission.
+     */
+    public synchronized int queued() {
+        return queued;
+    }
+
+    /**
+     * @return count of requests rejected since start.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return count of queued requests dropped in favor of newer ones.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+}
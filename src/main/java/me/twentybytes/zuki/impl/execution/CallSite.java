@@ -0,0 +1,90 @@
+package me.twentybytes.zuki.impl.execution;
+
+import me.twentybytes.zuki.api.execution.CallSiteCapture;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Captured request call site. Frames of zuki database itself are skipped,
+ * so trace starts from code which executed the request.
+ */
+public class CallSite {
+
+    /**
+     * Not captured call site.
+     */
+    public static final CallSite NONE = new CallSite(null, new StackTraceElement[0]);
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final String PACKAGE = "me.twentybytes.zuki.";
+
+    /**
+     * Frames of zuki classes, user subclasses of database are not internal.
+     */
+    private static final Predicate<StackWalker.StackFrame> INTERNAL = frame ->
+            frame.getDeclaringClass().getName().startsWith(PACKAGE);
+
+    private final List<StackWalker.StackFrame> frames;
+    private volatile StackTraceElement[] trace;
+
+    private CallSite(List<StackWalker.StackFrame> frames, StackTraceElement[] trace) {
+        this.frames = frames;
+        this.trace = trace;
+    }
+
+    /**
+     * @param mode       capture mode.
+     * @param depth      max captured frames count for lazy and sampled modes.
+     * @param sampleRate every n-th (on average) request is captured in sampled mode.
+     * @return           captured call site or {@link #NONE}.
+     */
+    @NotNull
+    public static CallSite capture(@NotNull CallSiteCapture mode, int depth, int sampleRate) {
+        return switch (mode) {
+            case OFF -> NONE;
+            case LAZY -> lazy(depth);
+            case SAMPLED -> sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0 ? lazy(depth) : NONE;
+            case FULL -> full();
+        };
+    }
+
+    private static CallSite full() {
+        // internal frames are matched by package, as in lazy mode.
+        return new CallSite(null, WALKER.walk(stream -> stream.dropWhile(INTERNAL)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .toArray(StackTraceElement[]::new)));
+    }
+
+    private static CallSite lazy(int depth) {
+        return new CallSite(WALKER.walk(stream -> stream.dropWhile(INTERNAL)
+                .limit(Math.max(depth, 1))
+                .collect(Collectors.toList())), null);
+    }
+
+    /**
+     * @return true if call site has no frames.
+     */
+    public boolean isEmpty() {
+        return trace().length == 0;
+    }
+
+    /**
+     * @return captured stack trace, resolved on first call.
+     */
+    @NotNull
+    public StackTraceElement[] trace() {
+        StackTraceElement[] trace = this.trace;
+        if (trace == null) {
+            trace = frames.stream()
+                    .map(StackWalker.StackFrame::toStackTraceElement)
+                    .toArray(StackTraceElement[]::new);
+            this.trace = trace;
+        }
+        return trace;
+    }
+
+}
@@ -0,0 +1,92 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Executor;
+
+/**
+ * Deadline of one request. Running statement is attached to deadline,
+ * so expiration cancels it and its connection is returned to pool.
+ */
+@Slf4j
+public class Deadline {
+
+    /**
+     * Deadline of requests without timeout.
+     */
+    public static final Deadline NONE = new Deadline();
+
+    private volatile boolean expired;
+    private Statement statement;
+
+    /**
+     * @return true if deadline has passed.
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Fails request which deadline passed before it was started.
+     */
+    public void check() throws SQLTimeoutException {
+        if (expired) {
+            throw new SQLTimeoutException("Request deadline exceeded");
+        }
+    }
+
+    /**
+     * @param statement statement which is going to be executed.
+     */
+    public void attach(@NotNull Statement statement) throws SQLTimeoutException {
+        if (this == NONE) {
+            return;
+        }
+
+        synchronized (this) {
+            check();
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Detaches statement before it is closed, waits for running cancellation.
+     */
+    public void detach() {
+        if (this == NONE) {
+            return;
+        }
+
+        synchronized (this) {
+            statement = null;
+        }
+    }
+
+    /**
+     * Marks deadline as expired and cancels attached statement on executor,
+     * because driver cancellation is blocking ({@code KILL QUERY} on separate connection).
+     *
+     * @param executor cancellation executor.
+     */
+    public void expire(@NotNull Executor executor) {
+        expired = true;
+        executor.execute(() -> {
+            synchronized (this) {
+                if (statement == null) {
+                    return;
+                }
+
+                try {
+                    statement.cancel();
+                } catch (SQLException exception) {
+                    log.warn("Can not cancel timed out statement. Message: " + exception.getMessage());
+                }
+            }
+        });
+    }
+
+}
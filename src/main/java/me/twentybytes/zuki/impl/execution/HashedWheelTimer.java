@@ -0,0 +1,235 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Approximate timer for large amount of short-living timeouts. Scheduling and
+ * cancellation are O(1): new timeouts are queued lock-free and placed into wheel
+ * buckets by worker thread once per tick, cancelled ones are dropped when their
+ * bucket is visited. Tasks are run on worker thread, so they must be short.
+ */
+@Slf4j
+public class HashedWheelTimer implements AutoCloseable {
+
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startTime = System.nanoTime();
+    private volatile boolean stopped;
+
+    /**
+     * @param name      worker thread name.
+     * @param tick      tick duration, timeouts fire with up to one tick delay.
+     * @param unit      tick duration unit.
+     * @param wheelSize buckets count, rounded up to power of two.
+     */
+    public HashedWheelTimer(@NotNull String name, long tick, @NotNull TimeUnit unit, int wheelSize) {
+        if (tick <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Illegal wheel timer tick " + tick + " or size " + wheelSize);
+        }
+
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.worker = Threads.daemon(name).newThread(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * @param task  executed task, called on timer thread.
+     * @param delay delay before execution.
+     * @param unit  delay unit.
+     * @return      cancellable timeout.
+     */
+    public Timeout schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0)));
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return scheduled timeouts which are not expired or cancelled yet.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops worker thread, not expired timeouts are never executed.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long deadline = tickNanos * (tick + 1);
+            long sleep;
+            while (!stopped && (sleep = deadline - (System.nanoTime() - startTime)) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (stopped) {
+                return;
+            }
+
+            transfer(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void transfer(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.cancelled) {
+                continue;
+            }
+
+            long ticks = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Scheduled task handle.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        // accessed only by worker thread
+        private long rounds;
+        private Timeout next;
+        private Timeout previous;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false if task is already executed or cancelled.
+         */
+        public boolean cancel() {
+            synchronized (this) {
+                if (cancelled || expired) {
+                    return false;
+                }
+                cancelled = true;
+            }
+            pending.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isExpired() {
+            return expired;
+        }
+
+        private void expire() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                expired = true;
+            }
+            pending.decrementAndGet();
+
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                log.warn("Timer task failed. Message: " + throwable.getMessage(), throwable);
+            }
+        }
+
+    }
+
+    /**
+     * Doubly-linked list of timeouts, accessed only by worker thread.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.cancelled) {
+                    remove(timeout);
+                } else if (timeout.rounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.next = timeout.previous = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor wrapper which allows only limited count of tasks
+ * to run at the same time. Tasks above limit wait in queue and are
+ * passed to delegate only when permit is free, so waiting tasks never
+ * hold threads and callers are never blocked.
+ */
+@Getter
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class LimitedExecutor implements Executor {
+
+    Executor delegate;
+    Semaphore permits;
+    int limit;
+
+    @Getter(AccessLevel.NONE)
+    Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    public LimitedExecutor(@NotNull Executor delegate, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Illegal limit: " + limit);
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(limit);
+        this.limit = limit;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        queue.offer(command);
+        drain();
+    }
+
+    /**
+     * @return count of tasks waiting for permit.
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    private void drain() {
+        // queue is checked after every permit release, so task offered while all permits are taken is not lost.
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            Runnable next = queue.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+
+            try {
+                delegate.execute(() -> run(next));
+            } catch (RejectedExecutionException exception) {
+                permits.release();
+                throw exception;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        // worker keeps its permit while queue is not empty, so limit also bounds delegate threads.
+        try {
+            while (task != null) {
+                task.run();
+                task = queue.poll();
+            }
+        } finally {
+            permits.release();
+            drain();
+        }
+    }
+
+}
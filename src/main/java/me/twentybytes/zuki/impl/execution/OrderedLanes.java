@@ -0,0 +1,133 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ordered execution lanes. Tasks submitted with the same key are started
+ * one after another in submission order, tasks with different keys run in parallel.
+ * <p>
+ * Every lane is a lock-free queue with pending counter: submitter which moves
+ * counter from 0 owns the lane and starts the task, following tasks are started
+ * by completion of the previous one. Empty lanes are retired (counter -1) and removed.
+ */
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class OrderedLanes {
+
+    ConcurrentMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * @param key  ordering key.
+     * @param task task which starts request and returns its completion future.
+     * @return     future completed when submitted task completes.
+     */
+    public CompletableFuture<Void> submit(@NotNull Object key, @NotNull Supplier<CompletableFuture<Void>> task) {
+        Entry entry = new Entry(task);
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(key, Lane::new);
+            int pending = lane.pending.get();
+
+            if (pending < 0) {
+                // lane was retired, help to remove it and try again.
+                lanes.remove(key, lane);
+                continue;
+            }
+
+            if (!lane.pending.compareAndSet(pending, pending + 1)) {
+                continue;
+            }
+
+            if (pending == 0) {
+                drain(lane, entry);
+            } else {
+                lane.queue.offer(entry);
+            }
+            return entry.result;
+        }
+    }
+
+    /**
+     * @return count of active lanes.
+     */
+    public int size() {
+        return lanes.size();
+    }
+
+    private void drain(Lane lane, Entry first) {
+        Entry entry = first;
+        while (entry != null) {
+            CompletableFuture<Void> future = entry.start();
+            future.whenComplete(entry::finish);
+
+            if (!future.isDone()) {
+                // failed requests complete future too, so lane is never stalled.
+                future.whenComplete((ignored, throwable) -> drain(lane, next(lane)));
+                return;
+            }
+            entry = next(lane);
+        }
+    }
+
+    private Entry next(Lane lane) {
+        if (lane.pending.decrementAndGet() == 0) {
+            if (lane.pending.compareAndSet(0, -1)) {
+                lanes.remove(lane.key, lane);
+            }
+            return null;
+        }
+
+        // counter is incremented before offer, so entry will appear very soon.
+        Entry entry;
+        while ((entry = lane.queue.poll()) == null) {
+            Thread.onSpinWait();
+        }
+        return entry;
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    private static class Lane {
+
+        Object key;
+        Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+        AtomicInteger pending = new AtomicInteger();
+
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    private static class Entry {
+
+        Supplier<CompletableFuture<Void>> task;
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        CompletableFuture<Void> start() {
+            try {
+                CompletableFuture<Void> future = task.get();
+                return future == null ? CompletableFuture.completedFuture(null) : future;
+            } catch (Throwable throwable) {
+                return CompletableFuture.failedFuture(throwable);
+            }
+        }
+
+        void finish(Void ignored, Throwable throwable) {
+            if (throwable == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.impl.metrics.RequestTimer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Execution state of one submitted request.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class RequestContext {
+
+    /**
+     * Runs task on caller thread.
+     */
+    public static final Executor DIRECT = Runnable::run;
+
+    /**
+     * Call site used for error logging.
+     */
+    CallSite callSite;
+
+    /**
+     * Request phases timer.
+     */
+    RequestTimer timer;
+
+    /**
+     * Request deadline, cancels running statement.
+     */
+    Deadline deadline;
+
+    /**
+     * Executor of request, {@link #DIRECT} for sync requests.
+     */
+    Executor executor;
+
+    /**
+     * True pins select to primary database.
+     */
+    boolean primary;
+
+    /**
+     * Fetch size hint of select statement, 0 means driver default.
+     */
+    int fetchSize;
+
+}
@@ -0,0 +1,172 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.api.callback.RowMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cold publisher of select rows. Every subscription executes query on its own
+ * connection and reads rows only while subscriber has demand. Connection, statement
+ * and result set are closed on completion, cancel or error.
+ * <p>
+ * All jdbc work of subscription happens in serialized drain loop on executor.
+ *
+ * @param <T> row type.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class RowPublisher<T> implements Flow.Publisher<T> {
+
+    Executor executor;
+    Callable<Connection> connections;
+    StatementFactory factory;
+    RowMapper<T> mapper;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    /**
+     * Creates prepared statement for subscription.
+     */
+    public interface StatementFactory {
+
+        PreparedStatement create(@NotNull Connection connection) throws SQLException;
+
+    }
+
+    private class RowSubscription implements Flow.Subscription {
+
+        final Flow.Subscriber<? super T> subscriber;
+        final AtomicLong demand = new AtomicLong();
+        final AtomicInteger wip = new AtomicInteger();
+        volatile boolean cancelled;
+        volatile Throwable failure;
+
+        // accessed only from drain loop
+        boolean done;
+        Connection connection;
+        PreparedStatement statement;
+        ResultSet set;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                run();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void run() {
+            if (done) {
+                return;
+            }
+
+            try {
+                while (demand.get() > 0 || cancelled || failure != null) {
+                    if (cancelled) {
+                        finish(true);
+                        return;
+                    }
+
+                    if (failure != null) {
+                        finish(true);
+                        subscriber.onError(failure);
+                        return;
+                    }
+
+                    if (set == null) {
+                        connection = connections.call();
+                        statement = factory.create(connection);
+                        set = statement.executeQuery();
+                    }
+
+                    if (!set.next()) {
+                        finish(false);
+                        subscriber.onComplete();
+                        return;
+                    }
+
+                    T row = mapper.map(set);
+                    demand.decrementAndGet();
+                    subscriber.onNext(row);
+                }
+            } catch (Throwable throwable) {
+                finish(true);
+                subscriber.onError(throwable);
+            }
+        }
+
+        private void finish(boolean abort) {
+            done = true;
+            if (abort && set != null) {
+                // streaming result set would read all remaining rows on close.
+                try {
+                    statement.cancel();
+                } catch (SQLException ignored) {
+                }
+            }
+
+            close(set);
+            close(statement);
+            close(connection);
+            set = null;
+            statement = null;
+            connection = null;
+        }
+
+        private void close(AutoCloseable closeable) {
+            if (closeable == null) {
+                return;
+            }
+
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread and executor factories used by zuki.
+ */
+@Slf4j
+@UtilityClass
+public class Threads {
+
+    /**
+     * @param name thread name prefix.
+     * @return     factory of named daemon threads.
+     */
+    public ThreadFactory daemon(@NotNull String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @param name timer thread name.
+     * @return     single threaded scheduler for timeouts.
+     */
+    public ScheduledExecutorService timer(@NotNull String name) {
+        return Executors.newSingleThreadScheduledExecutor(daemon(name));
+    }
+
+    /**
+     * Creates executor which starts new virtual thread for every task.
+     * Virtual threads are looked up reflectively, so on older runtimes
+     * executor falls back to cached pool of platform threads. Fallback pool is
+     * unbounded, so it must only be used behind {@link LimitedExecutor}, which
+     * passes tasks to it only when they may run.
+     *
+     * @return thread-per-task executor.
+     */
+    public ExecutorService perTask() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            log.warn("Virtual threads are not supported by this runtime, using platform thread per request.");
+            return Executors.newCachedThreadPool(daemon("zuki-request"));
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+package me.twentybytes.zuki.impl.execution;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.api.callback.UpdateCallback;
+import me.twentybytes.zuki.api.execution.BatchPolicy;
+import me.twentybytes.zuki.impl.metrics.RequestTimer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects update requests with identical bodies and flushes them
+ * as batches by size or time limit. Flushed batch is removed from map
+ * and its delayed flush is cancelled, so only bodies with pending
+ * requests are kept and nothing is flushed after {@link #flush()}.
+ */
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class UpdateBatcher {
+
+    @Getter
+    BatchPolicy policy;
+    ScheduledExecutorService timer;
+    Executor executor;
+    BiConsumer<String, List<Entry>> flusher;
+
+    ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+    Set<CompletableFuture<Void>> flushing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param policy   batching policy.
+     * @param timer    timer for delayed flushes.
+     * @param executor executor of flushes.
+     * @param flusher  executes batch of entries with the same body, must complete every entry future.
+     */
+    public UpdateBatcher(@NotNull BatchPolicy policy, @NotNull ScheduledExecutorService timer,
+                         @NotNull Executor executor, @NotNull BiConsumer<String, List<Entry>> flusher) {
+        this.policy = policy;
+        this.timer = timer;
+        this.executor = executor;
+        this.flusher = flusher;
+    }
+
+    /**
+     * @param body  update query.
+     * @param entry batched request.
+     * @return      future completed when request batch is flushed.
+     */
+    public CompletableFuture<Void> add(@NotNull String body, @NotNull Entry entry) {
+        List<Entry> full = null;
+        while (true) {
+            Batch batch = batches.computeIfAbsent(body, Batch::new);
+            synchronized (batch) {
+                // batch was flushed and removed between lookup and lock.
+                if (batch.retired) {
+                    continue;
+                }
+
+                batch.entries.add(entry);
+                if (batch.entries.size() >= policy.getMaxSize()) {
+                    full = take(batch);
+                } else if (batch.entries.size() == 1) {
+                    long generation = batch.generation;
+                    batch.scheduled = timer.schedule(() -> flushDelayed(batch, generation), policy.getMaxDelay(), TimeUnit.MILLISECONDS);
+                }
+            }
+            break;
+        }
+
+        if (full != null) {
+            submit(body, full);
+        }
+        return entry.future;
+    }
+
+    /**
+     * Flushes all collected batches on current thread and waits
+     * for batches which are already flushing.
+     */
+    public void flush() {
+        for (Batch batch : batches.values()) {
+            List<Entry> entries;
+            synchronized (batch) {
+                entries = take(batch);
+            }
+
+            if (!entries.isEmpty()) {
+                run(batch.body, entries);
+            }
+        }
+
+        for (CompletableFuture<Void> future : flushing) {
+            future.exceptionally(throwable -> null).join();
+        }
+    }
+
+    private void flushDelayed(Batch batch, long generation) {
+        List<Entry> entries;
+        synchronized (batch) {
+            if (batch.generation != generation) {
+                return;
+            }
+            entries = take(batch);
+        }
+
+        if (!entries.isEmpty()) {
+            submit(batch.body, entries);
+        }
+    }
+
+    /**
+     * Takes batch entries and retires batch, called under batch lock.
+     */
+    private List<Entry> take(Batch batch) {
+        batches.remove(batch.body, batch);
+        batch.retired = true;
+        return batch.take();
+    }
+
+    private void submit(String body, List<Entry> entries) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> run(body, entries), executor);
+        flushing.add(future);
+        future.whenComplete((ignored, throwable) -> flushing.remove(future));
+    }
+
+    private void run(String body, List<Entry> entries) {
+        try {
+            flusher.accept(body, entries);
+        } catch (Throwable throwable) {
+            for (Entry entry : entries) {
+                entry.future.completeExceptionally(throwable);
+            }
+        }
+    }
+
+    /**
+     * Batched update request.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    public static class Entry {
+
+        Object[] args;
+        UpdateCallback callback;
+        CallSite callSite;
+        RequestTimer timer;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+    }
+
+    @RequiredArgsConstructor
+    private static class Batch {
+
+        final String body;
+        List<Entry> entries = new ArrayList<>();
+        long generation;
+        boolean retired;
+        ScheduledFuture<?> scheduled;
+
+        List<Entry> take() {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+            List<Entry> taken = entries;
+            entries = new ArrayList<>();
+            generation++;
+            return taken;
+        }
+
+    }
+
+}
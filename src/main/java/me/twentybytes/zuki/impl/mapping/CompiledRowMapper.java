@@ -0,0 +1,34 @@
+package me.twentybytes.zuki.impl.mapping;
+
+import me.twentybytes.zuki.api.callback.RowMapper;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.sql.ResultSet;
+
+/**
+ * Template of compiled row mappers. Class bytes are defined by {@link RowMappers} as new hidden
+ * class for every mapper with its handle (ResultSet) -> Object as class data, so handle is
+ * static final constant of its own class and JIT inlines whole mapping chain.
+ * The template class itself is never instantiated.
+ */
+final class CompiledRowMapper<T> implements RowMapper<T> {
+
+    private static final MethodHandle HANDLE = handle();
+
+    private static MethodHandle handle() {
+        try {
+            return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T map(ResultSet set) throws Throwable {
+        return (T) HANDLE.invokeExact(set);
+    }
+
+}
@@ -0,0 +1,274 @@
+package me.twentybytes.zuki.impl.mapping;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import me.twentybytes.zuki.api.callback.RowMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Factory of compiled row mappers for records, pojo and simple value types.
+ * <p>
+ * Mapper is built once per (class, result columns) pair: column indexes are
+ * resolved at build time and every property is read by typed getter
+ * ({@code getInt}, {@code getLong}...) composed into {@link MethodHandle} chain,
+ * so primitive columns are not boxed. Chain is bound as constant of hidden mapper
+ * class (see {@link CompiledRowMapper}). Mappers are cached per class in {@link ClassValue},
+ * so cache does not keep classes and their loaders alive.
+ * Columns are matched to properties ignoring case and underscores ({@code user_id -> userId}).
+ * NULL in column mapped to primitive property fails mapping, wrapper types receive null.
+ */
+@UtilityClass
+public class RowMappers {
+
+    private final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private final ClassValue<ConcurrentMap<List<String>, RowMapper<?>>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<List<String>, RowMapper<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final byte[] TEMPLATE = template();
+    private final Map<Class<?>, String> GETTERS = new HashMap<>();
+    private final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            Integer.class, int.class, Long.class, long.class, Double.class, double.class,
+            Float.class, float.class, Short.class, short.class, Byte.class, byte.class, Boolean.class, boolean.class
+    );
+
+    static {
+        GETTERS.put(int.class, "getInt");
+        GETTERS.put(long.class, "getLong");
+        GETTERS.put(double.class, "getDouble");
+        GETTERS.put(float.class, "getFloat");
+        GETTERS.put(short.class, "getShort");
+        GETTERS.put(byte.class, "getByte");
+        GETTERS.put(boolean.class, "getBoolean");
+        GETTERS.put(String.class, "getString");
+        GETTERS.put(byte[].class, "getBytes");
+        GETTERS.put(BigDecimal.class, "getBigDecimal");
+        GETTERS.put(java.sql.Date.class, "getDate");
+        GETTERS.put(java.sql.Time.class, "getTime");
+        GETTERS.put(java.sql.Timestamp.class, "getTimestamp");
+    }
+
+    /**
+     * @param type     mapped class.
+     * @param metadata result metadata.
+     * @return         cached or newly compiled mapper.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RowMapper<T> of(@NotNull Class<T> type, @NotNull ResultSetMetaData metadata) throws SQLException {
+        String[] columns = new String[metadata.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metadata.getColumnLabel(i + 1);
+        }
+        return (RowMapper<T>) MAPPERS.get(type).computeIfAbsent(List.of(columns), key -> compile(type, key));
+    }
+
+    private RowMapper<?> compile(Class<?> type, List<String> columns) {
+        MethodHandle handle;
+        if (isValue(type)) {
+            handle = column(type, 1, type.getSimpleName());
+        } else {
+            Map<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                indexes.putIfAbsent(normalize(columns.get(i)), i + 1);
+            }
+            handle = type.isRecord() ? compileRecord(type, indexes) : compileBean(type, indexes);
+        }
+        return define(handle.asType(MethodType.methodType(Object.class, ResultSet.class)));
+    }
+
+    /**
+     * @param handle mapping handle (ResultSet) -> Object.
+     * @return       instance of new hidden mapper class with handle as constant.
+     */
+    @SneakyThrows
+    private RowMapper<?> define(MethodHandle handle) {
+        MethodHandles.Lookup mapper = LOOKUP.defineHiddenClassWithClassData(TEMPLATE, handle, true);
+        return (RowMapper<?>) mapper.findConstructor(mapper.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    @SneakyThrows
+    private byte[] template() {
+        try (InputStream stream = RowMappers.class.getResourceAsStream("CompiledRowMapper.class")) {
+            if (stream == null) {
+                throw new IllegalStateException("Row mapper template class is not found");
+            }
+            return stream.readAllBytes();
+        }
+    }
+
+    @SneakyThrows
+    private MethodHandle compileRecord(Class<?> type, Map<String, Integer> indexes) {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class[]::new);
+
+        Constructor<?> constructor = type.getDeclaredConstructor(types);
+        constructor.setAccessible(true);
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+
+        MethodHandle[] getters = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Integer index = indexes.get(normalize(components[i].getName()));
+            if (index == null) {
+                throw new IllegalStateException("Result has no column for record component " + type.getSimpleName() + "." + components[i].getName());
+            }
+            getters[i] = column(types[i], index, type.getSimpleName() + "." + components[i].getName());
+        }
+
+        // (ResultSet, ResultSet...) -> T, then all arguments are the same result set.
+        handle = MethodHandles.filterArguments(handle, 0, getters);
+        return MethodHandles.permuteArguments(handle, MethodType.methodType(type, ResultSet.class), new int[components.length]);
+    }
+
+    /**
+     * Bean is created by no-args constructor, then every mapped column is written by setter or field.
+     */
+    @SneakyThrows
+    private MethodHandle compileBean(Class<?> type, Map<String, Integer> indexes) {
+        Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        MethodHandle instantiate = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+
+        // (Object, ResultSet) -> Object returning instance, setters are folded in front of it.
+        MethodHandle body = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, ResultSet.class);
+        List<Map.Entry<String, Integer>> columns = new ArrayList<>(indexes.entrySet());
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            Map.Entry<String, Integer> column = columns.get(i);
+            MethodHandle setter = setter(type, column.getKey());
+            if (setter == null) {
+                continue;
+            }
+
+            // (T, ResultSet) -> void
+            Class<?> property = setter.type().parameterType(1);
+            setter = MethodHandles.filterArguments(setter, 1, column(property, column.getValue(), type.getSimpleName() + "." + column.getKey()));
+            body = MethodHandles.foldArguments(body, setter.asType(MethodType.methodType(void.class, Object.class, ResultSet.class)));
+        }
+        return MethodHandles.foldArguments(body, instantiate);
+    }
+
+    private MethodHandle setter(Class<?> type, String property) throws IllegalAccessException {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())
+                        && method.getName().startsWith("set") && normalize(method.getName().substring(3)).equals(property)) {
+                    method.setAccessible(true);
+                    return LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, type, method.getParameterTypes()[0]));
+                }
+            }
+        }
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && normalize(field.getName()).equals(property)) {
+                    field.setAccessible(true);
+                    return LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, type, field.getType()));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param property mapped property name, used in errors.
+     * @return         handle (ResultSet) -> type which reads column by typed getter.
+     */
+    @SneakyThrows
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private MethodHandle column(Class<?> type, int index, String property) {
+        MethodHandle getter;
+        String name = GETTERS.get(type);
+        if (name != null) {
+            getter = LOOKUP.findVirtual(ResultSet.class, name, MethodType.methodType(type, int.class));
+        } else if (type.isEnum()) {
+            getter = LOOKUP.findVirtual(ResultSet.class, "getString", MethodType.methodType(String.class, int.class));
+            MethodHandle valueOf = LOOKUP.findStatic(RowMappers.class, "enumValue", MethodType.methodType(Enum.class, Class.class, String.class));
+            getter = MethodHandles.filterReturnValue(getter, MethodHandles.insertArguments(valueOf, 0, type));
+        } else if (WRAPPERS.containsKey(type)) {
+            // primitive getter + wasNull check.
+            Class<?> primitive = WRAPPERS.get(type);
+            getter = LOOKUP.findVirtual(ResultSet.class, GETTERS.get(primitive), MethodType.methodType(primitive, int.class));
+            MethodHandle nullable = LOOKUP.findStatic(RowMappers.class, "nullable", MethodType.methodType(Object.class, Object.class, ResultSet.class));
+            getter = MethodHandles.foldArguments(MethodHandles.dropArguments(
+                    nullable.asType(MethodType.methodType(type, type, ResultSet.class)), 2, int.class), getter.asType(MethodType.methodType(type, ResultSet.class, int.class)));
+        } else {
+            getter = LOOKUP.findStatic(RowMappers.class, "object", MethodType.methodType(Object.class, ResultSet.class, int.class, Class.class));
+            getter = MethodHandles.insertArguments(getter, 2, type);
+        }
+
+        getter = MethodHandles.insertArguments(getter, 1, index);
+        getter = getter.asType(MethodType.methodType(type, ResultSet.class));
+        if (!type.isPrimitive()) {
+            return getter;
+        }
+
+        // (value, ResultSet) -> value, fails if value was NULL.
+        MethodHandle check = LOOKUP.findStatic(RowMappers.class, "requireNotNull", MethodType.methodType(void.class, ResultSet.class, int.class, String.class));
+        check = MethodHandles.dropArguments(MethodHandles.insertArguments(check, 1, index, property), 0, type);
+        MethodHandle checked = MethodHandles.foldArguments(MethodHandles.dropArguments(MethodHandles.identity(type), 1, ResultSet.class), check);
+        return MethodHandles.foldArguments(checked, getter);
+    }
+
+    @SuppressWarnings("unused")
+    private static void requireNotNull(ResultSet set, int index, String property) throws SQLException {
+        if (set.wasNull()) {
+            throw new SQLException("Column " + index + " is NULL, but " + property + " is primitive, use wrapper type");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static Object nullable(Object value, ResultSet set) throws SQLException {
+        return set.wasNull() ? null : value;
+    }
+
+    @SuppressWarnings("unused")
+    private static Object object(ResultSet set, int index, Class<?> type) throws SQLException {
+        try {
+            return set.getObject(index, type);
+        } catch (SQLFeatureNotSupportedException exception) {
+            // disconnected row sets support only untyped getObject.
+            return type.cast(set.getObject(index));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes", "unused"})
+    private static Enum<?> enumValue(Class type, String value) {
+        return value == null ? null : Enum.valueOf(type, value);
+    }
+
+    private boolean isValue(Class<?> type) {
+        return type.isPrimitive() || GETTERS.containsKey(type) || type.isEnum()
+                || Number.class.isAssignableFrom(type) || type == Boolean.class || type == Character.class
+                || type.getName().startsWith("java.");
+    }
+
+    private String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+}
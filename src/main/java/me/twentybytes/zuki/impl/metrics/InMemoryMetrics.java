@@ -0,0 +1,127 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import me.twentybytes.zuki.api.metrics.RequestTiming;
+import me.twentybytes.zuki.api.metrics.ZukiMetrics;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dependency-free metrics kept in memory: per label histograms,
+ * in-flight and queue depth gauges and error counters.
+ * Labels count is limited, requests of labels over limit are recorded to {@link #OVERFLOW} label.
+ */
+public class InMemoryMetrics implements ZukiMetrics {
+
+    /**
+     * Label of requests which labels do not fit into labels limit.
+     */
+    public static final String OVERFLOW = "overflow";
+
+    private final ConcurrentMap<String, LabelMetrics> labels = new ConcurrentHashMap<>();
+    private final int maxLabels;
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public InMemoryMetrics() {
+        this(1024);
+    }
+
+    /**
+     * @param maxLabels max count of labels with own metrics.
+     */
+    public InMemoryMetrics(int maxLabels) {
+        this.maxLabels = maxLabels;
+    }
+
+    @Override
+    public void submitted(@NotNull String label, @NotNull RequestType type) {
+        queued.incrementAndGet();
+    }
+
+    @Override
+    public void started(@NotNull String label, @NotNull RequestType type, long queueNanos) {
+        queued.decrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void completed(@NotNull RequestTiming timing) {
+        inFlight.decrementAndGet();
+        requests.increment();
+        if (timing.isFailed()) {
+            errors.increment();
+        }
+        label(timing.getLabel()).record(timing);
+    }
+
+    /**
+     * @param label request label.
+     * @return      metrics of label, created on first use, or overflow metrics if labels limit is reached.
+     */
+    public LabelMetrics label(@NotNull String label) {
+        LabelMetrics metrics = labels.get(label);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        // limit is approximate under concurrent creation, overflow label itself is not counted.
+        if (labels.size() >= maxLabels) {
+            label = OVERFLOW;
+        }
+        return labels.computeIfAbsent(label, this::create);
+    }
+
+    /**
+     * @return metrics by labels.
+     */
+    public Map<String, LabelMetrics> labels() {
+        return Collections.unmodifiableMap(labels);
+    }
+
+    /**
+     * @return requests submitted but not started yet.
+     */
+    public long getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return requests started but not completed yet.
+     */
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return completed requests count.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return failed requests count.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Creates metrics of new label.
+     *
+     * @param label request label.
+     */
+    protected LabelMetrics create(@NotNull String label) {
+        return new LabelMetrics(label);
+    }
+
+}
@@ -0,0 +1,78 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link InMemoryMetrics} exposed as platform MBeans:
+ * {@code me.twentybytes.zuki:type=Database,name=<name>} with gauges and
+ * {@code me.twentybytes.zuki:type=Requests,name=<name>,label=<label>} per label.
+ */
+@Slf4j
+public class JmxMetrics extends InMemoryMetrics implements JmxMetricsMBean, AutoCloseable {
+
+    private static final String DOMAIN = "me.twentybytes.zuki";
+
+    private final String name;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final Set<ObjectName> registered = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param name database name used in object names.
+     */
+    public JmxMetrics(@NotNull String name) {
+        this(name, 256);
+    }
+
+    /**
+     * @param name      database name used in object names.
+     * @param maxLabels max count of labels with own MBean, other labels share {@link #OVERFLOW} one.
+     */
+    public JmxMetrics(@NotNull String name, int maxLabels) {
+        super(maxLabels);
+        this.name = ObjectName.quote(name);
+        register(this, DOMAIN + ":type=Database,name=" + this.name);
+    }
+
+    @Override
+    protected LabelMetrics create(@NotNull String label) {
+        LabelMetrics metrics = super.create(label);
+        register(metrics, DOMAIN + ":type=Requests,name=" + name + ",label=" + ObjectName.quote(label));
+        return metrics;
+    }
+
+    /**
+     * Unregisters all MBeans.
+     */
+    @Override
+    public void close() {
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (Exception exception) {
+                log.warn("Can not unregister " + objectName + ". Message: " + exception.getMessage());
+            }
+        }
+        registered.clear();
+    }
+
+    @SneakyThrows
+    private void register(Object bean, String objectName) {
+        ObjectName parsed = new ObjectName(objectName);
+        try {
+            server.registerMBean(bean, parsed);
+            registered.add(parsed);
+        } catch (Exception exception) {
+            // metrics must not break requests.
+            log.warn("Can not register " + parsed + ". Message: " + exception.getMessage());
+        }
+    }
+
+}
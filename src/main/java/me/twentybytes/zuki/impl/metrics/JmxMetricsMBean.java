@@ -0,0 +1,16 @@
+package me.twentybytes.zuki.impl.metrics;
+
+/**
+ * JMX view of database gauges and counters.
+ */
+public interface JmxMetricsMBean {
+
+    long getQueueDepth();
+
+    long getInFlight();
+
+    long getRequests();
+
+    long getErrors();
+
+}
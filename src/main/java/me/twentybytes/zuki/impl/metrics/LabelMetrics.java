@@ -0,0 +1,141 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import lombok.Getter;
+import me.twentybytes.zuki.api.metrics.RequestPhase;
+import me.twentybytes.zuki.api.metrics.RequestTiming;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters of requests with the same label.
+ */
+public class LabelMetrics implements LabelMetricsMBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    @Getter
+    private final String label;
+    private final Map<RequestPhase, LatencyHistogram> phases = new EnumMap<>(RequestPhase.class);
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public LabelMetrics(@NotNull String label) {
+        this.label = label;
+        for (RequestPhase phase : RequestPhase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * @param timing completed request timing.
+     */
+    public void record(@NotNull RequestTiming timing) {
+        for (RequestPhase phase : RequestPhase.values()) {
+            phases.get(phase).record(timing.nanos(phase));
+        }
+        total.record(timing.totalNanos());
+        if (timing.isFailed()) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * @param phase request phase.
+     * @return      phase histogram.
+     */
+    public LatencyHistogram histogram(@NotNull RequestPhase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * @return histogram of time from submission to completion.
+     */
+    public LatencyHistogram total() {
+        return total;
+    }
+
+    @Override
+    public long getCount() {
+        return total.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getQueueMean() {
+        return histogram(RequestPhase.QUEUE).mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getQueueP99() {
+        return millis(RequestPhase.QUEUE, 99);
+    }
+
+    @Override
+    public double getAcquireMean() {
+        return histogram(RequestPhase.ACQUIRE).mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getAcquireP99() {
+        return millis(RequestPhase.ACQUIRE, 99);
+    }
+
+    @Override
+    public double getExecuteMean() {
+        return histogram(RequestPhase.EXECUTE).mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getExecuteP50() {
+        return millis(RequestPhase.EXECUTE, 50);
+    }
+
+    @Override
+    public double getExecuteP99() {
+        return millis(RequestPhase.EXECUTE, 99);
+    }
+
+    @Override
+    public double getExecuteMax() {
+        return histogram(RequestPhase.EXECUTE).max() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCallbackMean() {
+        return histogram(RequestPhase.CALLBACK).mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCallbackP99() {
+        return millis(RequestPhase.CALLBACK, 99);
+    }
+
+    @Override
+    public double getTotalP50() {
+        return total.percentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTotalP99() {
+        return total.percentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        phases.values().forEach(LatencyHistogram::reset);
+        total.reset();
+        errors.reset();
+    }
+
+    private double millis(RequestPhase phase, double percentile) {
+        return histogram(phase).percentile(percentile) / NANOS_PER_MILLI;
+    }
+
+}
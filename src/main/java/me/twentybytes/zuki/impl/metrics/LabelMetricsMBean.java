@@ -0,0 +1,40 @@
+package me.twentybytes.zuki.impl.metrics;
+
+/**
+ * JMX view of {@link LabelMetrics}, times are in milliseconds.
+ */
+public interface LabelMetricsMBean {
+
+    String getLabel();
+
+    long getCount();
+
+    long getErrors();
+
+    double getQueueMean();
+
+    double getQueueP99();
+
+    double getAcquireMean();
+
+    double getAcquireP99();
+
+    double getExecuteMean();
+
+    double getExecuteP50();
+
+    double getExecuteP99();
+
+    double getExecuteMax();
+
+    double getCallbackMean();
+
+    double getCallbackP99();
+
+    double getTotalP50();
+
+    double getTotalP99();
+
+    void reset();
+
+}
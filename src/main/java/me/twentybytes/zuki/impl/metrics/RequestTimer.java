@@ -0,0 +1,133 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import me.twentybytes.zuki.api.metrics.RequestTiming;
+import me.twentybytes.zuki.api.metrics.ZukiMetrics;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks phases of one request and reports them to {@link ZukiMetrics}.
+ * Start may be marked by both request thread and timeout of queued request, so it is
+ * reported once, marks after completion are ignored.
+ */
+public class RequestTimer {
+
+    /**
+     * Timer of not measured requests, ignores all marks.
+     */
+    public static final RequestTimer NONE = new RequestTimer();
+
+    private final ZukiMetrics metrics;
+    private final String label;
+    private final RequestType type;
+    private final long submitted;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile long acquired;
+    private volatile long executed;
+    private volatile boolean detached;
+
+    private RequestTimer() {
+        this.metrics = ZukiMetrics.NOOP;
+        this.label = "";
+        this.type = RequestType.SELECT;
+        this.submitted = 0;
+    }
+
+    private RequestTimer(ZukiMetrics metrics, String label, RequestType type) {
+        this.metrics = metrics;
+        this.label = label;
+        this.type = type;
+        this.submitted = System.nanoTime();
+        metrics.submitted(label, type);
+    }
+
+    /**
+     * @return started timer or {@link #NONE} if metrics are disabled.
+     */
+    public static RequestTimer start(@NotNull ZukiMetrics metrics, @NotNull String label, @NotNull RequestType type) {
+        return metrics == ZukiMetrics.NOOP ? NONE : new RequestTimer(metrics, label, type);
+    }
+
+    /**
+     * Marks start of request on executor.
+     */
+    public void started() {
+        if (this != NONE && !completed.get()) {
+            start(System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks borrowed connection.
+     */
+    public void acquired() {
+        if (this != NONE && !completed.get()) {
+            acquired = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks executed statement, callback is started.
+     */
+    public void executed() {
+        if (this != NONE && !completed.get()) {
+            executed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Callback of detached select runs after request future is completed, so successful
+     * request is reported by {@link #callbackCompleted(Throwable)}, must be called before request completes.
+     */
+    public void detach() {
+        if (this != NONE) {
+            detached = true;
+        }
+    }
+
+    /**
+     * Reports request timing once, not marked phases take no time.
+     * Successful detached request is reported after its callback.
+     *
+     * @param error request failure or null.
+     */
+    public void completed(Throwable error) {
+        if (!detached || error != null) {
+            report(error);
+        }
+    }
+
+    /**
+     * Reports timing of detached request including its callback.
+     *
+     * @param error callback failure or null.
+     */
+    public void callbackCompleted(Throwable error) {
+        report(error);
+    }
+
+    private void report(Throwable error) {
+        if (this == NONE || !completed.compareAndSet(false, true)) {
+            return;
+        }
+
+        long end = System.nanoTime();
+        start(end);
+        long startedAt = started.get();
+        long acquiredAt = acquired == 0 ? end : acquired;
+        long executedAt = executed == 0 ? end : executed;
+        metrics.completed(new RequestTiming(label, type, startedAt - submitted, acquiredAt - startedAt,
+                executedAt - acquiredAt, end - executedAt, error));
+    }
+
+    private void start(long now) {
+        if (started.compareAndSet(0, now)) {
+            metrics.started(label, type, now - submitted);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only text file rotated by size: {@code file} is renamed to {@code file.1},
+ * {@code file.1} to {@code file.2} and so on, files above max count are removed.
+ */
+public class RotatingFile implements AutoCloseable {
+
+    private final Path file;
+    private final long maxSize;
+    private final int maxFiles;
+    private OutputStream stream;
+    private long size;
+
+    /**
+     * @param file     current file.
+     * @param maxSize  max file size in bytes.
+     * @param maxFiles max count of rotated files, 0 keeps only current file.
+     * @throws IOException if file can not be opened.
+     */
+    public RotatingFile(@NotNull Path file, long maxSize, int maxFiles) throws IOException {
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+        open();
+    }
+
+    /**
+     * @param text appended text, never split between files.
+     */
+    public synchronized void append(@NotNull String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > maxSize) {
+            rotate();
+        }
+        stream.write(bytes);
+        stream.flush();
+        size += bytes.length;
+    }
+
+    private void rotate() throws IOException {
+        stream.close();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        stream = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        stream.close();
+    }
+
+}
@@ -0,0 +1,303 @@
+package me.twentybytes.zuki.impl.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.metrics.SlowQuery;
+import me.twentybytes.zuki.api.metrics.SlowQueryPolicy;
+import me.twentybytes.zuki.api.request.ArgumentBuffer;
+import me.twentybytes.zuki.api.request.RequestType;
+import me.twentybytes.zuki.impl.execution.CallSite;
+import me.twentybytes.zuki.impl.execution.Threads;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ring buffer of slow queries. Statements are only compared with threshold on request
+ * thread, explain and file writing run on one low priority background thread, so slow
+ * query log never delays requests. Explains which do not fit queue are skipped.
+ */
+@Slf4j
+public class SlowQueryLog implements AutoCloseable {
+
+    /**
+     * Explains query on connection of background thread.
+     */
+    @FunctionalInterface
+    public interface Explainer {
+
+        /**
+         * @param query   explained query.
+         * @param args    query arguments.
+         * @param primary true if query must be explained on primary database.
+         * @return        formatted query plan.
+         */
+        String explain(@NotNull String query, @NotNull Object[] args, boolean primary) throws SQLException;
+    }
+
+    @Getter
+    private final SlowQueryPolicy policy;
+    private final long thresholdNanos;
+    private final Explainer explainer;
+    private final ThreadPoolExecutor background;
+    private final RotatingFile file;
+
+    // guarded by this.
+    private final SlowQuery[] ring;
+    private int next;
+    private long recorded;
+
+    private final AtomicLong slow = new AtomicLong();
+    private final AtomicInteger pendingExplains = new AtomicInteger();
+    private final LongAdder explained = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * @param policy    slow query log settings.
+     * @param explainer query explainer.
+     * @throws IOException if log file can not be opened.
+     */
+    public SlowQueryLog(@NotNull SlowQueryPolicy policy, @NotNull Explainer explainer) throws IOException {
+        this.policy = policy;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(policy.getThreshold());
+        this.explainer = explainer;
+        this.ring = new SlowQuery[policy.getCapacity()];
+        this.file = policy.getFile() == null ? null : new RotatingFile(policy.getFile(), policy.getMaxFileSize(), policy.getMaxFiles());
+
+        ThreadFactory daemon = Threads.daemon("zuki-slow-query");
+        this.background = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(policy.getCapacity()), runnable -> {
+                    Thread thread = daemon.newThread(runnable);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    /**
+     * Records statement if it is slow.
+     *
+     * @param type       request type.
+     * @param query      statement body.
+     * @param args       statement arguments.
+     * @param callSite   request call site.
+     * @param primary    true if statement ran on primary database.
+     * @param startedAt  request start on executor, nano time.
+     * @param acquiredAt connection acquire, nano time.
+     * @param executedAt statement execution end before callback, nano time, 0 if statement failed.
+     * @param error      statement failure or null.
+     */
+    public void record(@NotNull RequestType type, @NotNull String query, @NotNull Object[] args, @NotNull CallSite callSite,
+                       boolean primary, long startedAt, long acquiredAt, long executedAt, SQLException error) {
+        long end = System.nanoTime();
+        // callback time is not statement time, only connection acquire to execution end is compared.
+        long executeEnd = executedAt == 0 ? end : executedAt;
+        if (executeEnd - acquiredAt < thresholdNanos) {
+            return;
+        }
+
+        Object[] values = args.length == 1 && args[0] instanceof ArgumentBuffer buffer ? buffer.toArray() : args.clone();
+        Object[] recordedValues = new Object[policy.isArguments() ? values.length : 0];
+        for (int i = 0; i < recordedValues.length; i++) {
+            recordedValues[i] = policy.getRedactor().apply(values[i]);
+        }
+
+        SlowQuery entry = new SlowQuery(
+                System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(end - startedAt),
+                type, query, recordedValues, values.length,
+                acquiredAt - startedAt, executeEnd - acquiredAt, end - executeEnd,
+                callSite.trace(), error == null ? null : error.getMessage()
+        );
+        synchronized (this) {
+            ring[next] = entry;
+            next = (next + 1) % ring.length;
+            recorded++;
+        }
+
+        int rate = policy.getExplainSampleRate();
+        boolean explain = rate > 0 && error == null && isExplainable(query) && slow.getAndIncrement() % rate == 0;
+        if (explain && pendingExplains.incrementAndGet() > policy.getExplainQueue()) {
+            pendingExplains.decrementAndGet();
+            skipped.increment();
+            explain = false;
+        }
+        if (!explain && file == null) {
+            return;
+        }
+
+        boolean explaining = explain;
+        try {
+            background.execute(() -> {
+                if (explaining) {
+                    try {
+                        entry.setExplain(explainer.explain(query, values, primary));
+                        explained.increment();
+                    } catch (Throwable throwable) {
+                        entry.setExplain("EXPLAIN failed: " + throwable.getMessage());
+                    } finally {
+                        pendingExplains.decrementAndGet();
+                    }
+                }
+                write(entry);
+            });
+        } catch (RejectedExecutionException exception) {
+            // queue is full or log is closed, entry is kept in memory only.
+            if (explaining) {
+                pendingExplains.decrementAndGet();
+            }
+            skipped.increment();
+        }
+    }
+
+    private void write(SlowQuery entry) {
+        if (file == null) {
+            return;
+        }
+
+        StringBuilder builder = new StringBuilder()
+                .append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ').append(entry.getRequestType())
+                .append(" total=").append(millis(entry.totalNanos()))
+                .append(" acquire=").append(millis(entry.getAcquireNanos()))
+                .append(" execute=").append(millis(entry.getExecuteNanos()))
+                .append(" fetch=").append(millis(entry.getFetchNanos()));
+        if (entry.isFailed()) {
+            builder.append(" error=").append(entry.getError());
+        }
+        builder.append(System.lineSeparator()).append("  query: ").append(entry.getBody()).append(System.lineSeparator());
+        if (entry.getArgumentsCount() > 0) {
+            builder.append("  arguments: ").append(policy.isArguments() ? Arrays.deepToString(entry.getArguments())
+                    : entry.getArgumentsCount() + " not recorded").append(System.lineSeparator());
+        }
+        for (StackTraceElement element : entry.getCallSite()) {
+            builder.append("  at ").append(element).append(System.lineSeparator());
+        }
+        if (entry.getExplain() != null) {
+            builder.append("  explain:").append(System.lineSeparator());
+            for (String line : entry.getExplain().split("\n")) {
+                builder.append("    ").append(line).append(System.lineSeparator());
+            }
+        }
+        builder.append(System.lineSeparator());
+
+        try {
+            file.append(builder.toString());
+        } catch (IOException exception) {
+            log.warn("Slow query log write failed: {}", exception.getMessage());
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000D);
+    }
+
+    /**
+     * @param query statement body.
+     * @return      true if statement is data query or change which may be explained.
+     */
+    public static boolean isExplainable(@NotNull String query) {
+        String trimmed = query.stripLeading();
+        while (trimmed.startsWith("(")) {
+            trimmed = trimmed.substring(1).stripLeading();
+        }
+        String keyword = trimmed.split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with", "insert", "update", "delete", "replace" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return kept slow queries, oldest first.
+     */
+    public synchronized List<SlowQuery> entries() {
+        List<SlowQuery> entries = new ArrayList<>(ring.length);
+        for (int i = 0; i < ring.length; i++) {
+            SlowQuery entry = ring[(next + i) % ring.length];
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @param limit max count of returned queries.
+     * @return      kept slow queries, slowest first.
+     */
+    public List<SlowQuery> slowest(int limit) {
+        List<SlowQuery> entries = entries();
+        entries.sort(Comparator.comparingLong(SlowQuery::totalNanos).reversed());
+        return entries.subList(0, Math.min(Math.max(limit, 0), entries.size()));
+    }
+
+    /**
+     * Removes kept slow queries.
+     */
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next = 0;
+    }
+
+    /**
+     * @return count of slow queries recorded since start, including overwritten ones.
+     */
+    public synchronized long recorded() {
+        return recorded;
+    }
+
+    /**
+     * @return count of explained slow queries.
+     */
+    public long explained() {
+        return explained.sum();
+    }
+
+    /**
+     * @return count of explains and file writes skipped because background thread was busy.
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return true if log is closed and records are kept in memory only.
+     */
+    public boolean isClosed() {
+        return background.isShutdown();
+    }
+
+    /**
+     * Stops background thread after pending explains and writes, closes log file.
+     */
+    @Override
+    public void close() {
+        background.shutdown();
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException exception) {
+                log.warn("Slow query log close failed: {}", exception.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package me.twentybytes.zuki.impl.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.util.Properties;
+
+/**
+ * Copies of user pool configs, zuki changes copies only.
+ */
+@UtilityClass
+public class PoolConfigs {
+
+    private static final Field DATA_SOURCE_PROPERTIES = dataSourceProperties();
+
+    /**
+     * {@link HikariConfig#copyStateTo(HikariConfig)} shares data source properties
+     * with original config, copy gets its own properties.
+     *
+     * @param config copied config.
+     * @return       unsealed copy which may be changed without affecting original.
+     */
+    @NotNull
+    @SneakyThrows
+    public HikariConfig copy(@NotNull HikariConfig config) {
+        HikariConfig copy = new HikariConfig();
+        config.copyStateTo(copy);
+
+        Properties properties = new Properties();
+        properties.putAll(config.getDataSourceProperties());
+        DATA_SOURCE_PROPERTIES.set(copy, properties);
+        return copy;
+    }
+
+    @SneakyThrows
+    private static Field dataSourceProperties() {
+        Field field = HikariConfig.class.getDeclaredField("dataSourceProperties");
+        field.setAccessible(true);
+        return field;
+    }
+
+}
@@ -0,0 +1,120 @@
+package me.twentybytes.zuki.impl.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.pool.AdaptivePoolPolicy;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes running hikari pool within policy bounds. Pool grows when all connections
+ * are busy and requests wait for connection (or time out), shrinks step by step when
+ * peak concurrency stays below pool size long enough. Shrinking lowers pool size limit,
+ * surplus idle connections are retired by hikari after idle timeout.
+ */
+@Slf4j
+public class PoolController implements AutoCloseable {
+
+    private final AdaptivePoolPolicy policy;
+    private final HikariDataSource source;
+    private final PoolTracker tracker;
+    private final ScheduledFuture<?> task;
+    private final long targetWaitNanos;
+
+    @Getter
+    private volatile int size;
+    @Getter
+    private volatile long resizes;
+    private int calm;
+
+    /**
+     * @param policy  sizing policy.
+     * @param source  pool created from {@link #instrument(HikariConfig, AdaptivePoolPolicy, PoolTracker)} config.
+     * @param tracker tracker of the pool.
+     * @param timer   sampling timer.
+     */
+    public PoolController(@NotNull AdaptivePoolPolicy policy, @NotNull HikariDataSource source,
+                          @NotNull PoolTracker tracker, @NotNull ScheduledExecutorService timer) {
+        this.policy = policy;
+        this.source = source;
+        this.tracker = tracker;
+        this.size = source.getMaximumPoolSize();
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(policy.getTargetWait());
+        this.task = timer.scheduleWithFixedDelay(this::sample, policy.getInterval(), policy.getInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sample pool usage and resize pool if needed.
+     */
+    protected void sample() {
+        try {
+            PoolTracker.Sample sample = tracker.sample();
+            int waiting = source.getHikariPoolMXBean() == null ? 0 : source.getHikariPoolMXBean().getThreadsAwaitingConnection();
+            int size = this.size;
+
+            // waits on partially filled pool are connection creation, not shortage.
+            boolean saturated = sample.getPeakInUse() >= size || sample.getTimeouts() > 0;
+            if (saturated && (waiting > 0 || sample.getTimeouts() > 0 || sample.averageWait() > targetWaitNanos)) {
+                calm = 0;
+                if (size < policy.getMaxSize()) {
+                    resize(Math.min(policy.getMaxSize(), size + Math.max(policy.getStep(), waiting)), sample);
+                }
+                return;
+            }
+
+            if (sample.getPeakInUse() + policy.getStep() >= size) {
+                calm = 0;
+                return;
+            }
+
+            if (++calm >= policy.getShrinkDelay() && size > policy.getMinSize()) {
+                // next shrink step waits for another full calm period.
+                calm = 0;
+                resize(Math.max(policy.getMinSize(), Math.max(size - policy.getStep(), sample.getPeakInUse() + policy.getStep())), sample);
+            }
+        } catch (Throwable throwable) {
+            log.error("Pool sampling failed", throwable);
+        }
+    }
+
+    protected void resize(int size, PoolTracker.Sample sample) {
+        log.debug("Resizing pool {} from {} to {} ({})", source.getPoolName(), this.size, size, sample);
+        source.getHikariConfigMXBean().setMaximumPoolSize(size);
+        this.size = size;
+        this.resizes++;
+    }
+
+    @Override
+    public void close() {
+        task.cancel(false);
+    }
+
+    /**
+     * Copies pool config with tracker installed and pool bounded by policy.
+     * Hikari metric registry can not be combined with tracker, such configs are left not adaptive.
+     *
+     * @param config  pool config.
+     * @param policy  sizing policy.
+     * @param tracker pool tracker, created with config tracker factory as delegate.
+     * @return        config copy or null if adaptive sizing can not be used with config.
+     */
+    public static HikariConfig instrument(@NotNull HikariConfig config, @NotNull AdaptivePoolPolicy policy, @NotNull PoolTracker tracker) {
+        if (config.getMetricRegistry() != null) {
+            log.warn("Adaptive pool sizing is disabled, hikari metric registry is configured");
+            return null;
+        }
+
+        HikariConfig copy = new HikariConfig();
+        config.copyStateTo(copy);
+        copy.setMetricsTrackerFactory(tracker);
+        copy.setMinimumIdle(policy.getMinSize());
+        copy.setMaximumPoolSize(Math.max(policy.getMinSize(), Math.min(policy.getMaxSize(), config.getMaximumPoolSize())));
+        return copy;
+    }
+
+}
@@ -0,0 +1,77 @@
+package me.twentybytes.zuki.impl.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Graceful close of replaced pools. Hikari close aborts borrowed connections,
+ * so replaced pool is closed only when nothing is borrowed or waited for.
+ */
+@Slf4j
+@UtilityClass
+public class PoolDrain {
+
+    private final long CHECK_INTERVAL = 50;
+
+    /**
+     * Closes pools after all borrowed connections are returned and no thread waits for connection,
+     * or after timeout.
+     *
+     * @param sources  replaced pools.
+     * @param timeout  max drain time in millis.
+     * @param timer    drain check timer.
+     * @param executor executor of pools close, close blocks until connections are closed.
+     * @return         future completed when all pools are closed.
+     */
+    public CompletableFuture<Void> drain(@NotNull List<HikariDataSource> sources, long timeout,
+                                         @NotNull ScheduledExecutorService timer, @NotNull Executor executor) {
+        return CompletableFuture.allOf(sources.stream()
+                .map(source -> drain(source, timeout, timer, executor))
+                .toArray(CompletableFuture<?>[]::new));
+    }
+
+    private CompletableFuture<Void> drain(HikariDataSource source, long timeout, ScheduledExecutorService timer, Executor executor) {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        task.set(timer.scheduleWithFixedDelay(() -> {
+            if (closed.isDone()) {
+                return;
+            }
+
+            HikariPoolMXBean pool = source.getHikariPoolMXBean();
+            boolean idle = pool == null || (pool.getActiveConnections() == 0 && pool.getThreadsAwaitingConnection() == 0);
+            boolean expired = System.nanoTime() - deadline >= 0;
+            if (!idle && !expired) {
+                return;
+            }
+
+            if (!idle) {
+                log.warn("Pool {} is not drained in {} ms, aborting {} borrowed connections",
+                        source.getPoolName(), timeout, pool.getActiveConnections());
+            }
+            task.get().cancel(false);
+            executor.execute(() -> {
+                try {
+                    source.close();
+                    closed.complete(null);
+                } catch (Throwable throwable) {
+                    closed.completeExceptionally(throwable);
+                }
+            });
+        }, CHECK_INTERVAL, CHECK_INTERVAL, TimeUnit.MILLISECONDS));
+        return closed;
+    }
+
+}
@@ -0,0 +1,134 @@
+package me.twentybytes.zuki.impl.pool;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker collecting connection acquire waits and
+ * connections in use between pool samples. Calls are passed to
+ * previously configured tracker factory if exists.
+ */
+public class PoolTracker implements MetricsTrackerFactory, IMetricsTracker {
+
+    /**
+     * Pool usage since previous sample.
+     */
+    @Getter @ToString
+    @RequiredArgsConstructor
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    public static class Sample {
+        long acquires;
+        long waitNanos;
+        long timeouts;
+        int peakInUse;
+
+        /**
+         * @return average connection acquire wait in nanos.
+         */
+        public long averageWait() {
+            return acquires == 0 ? 0 : waitNanos / acquires;
+        }
+    }
+
+    private final MetricsTrackerFactory delegateFactory;
+    private volatile IMetricsTracker delegate;
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    /**
+     * @param delegateFactory previously configured tracker factory, may be null.
+     */
+    public PoolTracker(MetricsTrackerFactory delegateFactory) {
+        this.delegateFactory = delegateFactory;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        if (delegateFactory != null) {
+            delegate = delegateFactory.create(poolName, poolStats);
+        }
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        IMetricsTracker delegate = this.delegate;
+        if (delegate != null) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquires.increment();
+        waitNanos.add(elapsedAcquiredNanos);
+        int current = inUse.incrementAndGet();
+        if (current > peakInUse.get()) {
+            peakInUse.accumulateAndGet(current, Math::max);
+        }
+
+        IMetricsTracker delegate = this.delegate;
+        if (delegate != null) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        inUse.updateAndGet(current -> Math.max(current - 1, 0));
+
+        IMetricsTracker delegate = this.delegate;
+        if (delegate != null) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+
+        IMetricsTracker delegate = this.delegate;
+        if (delegate != null) {
+            delegate.recordConnectionTimeout();
+        }
+    }
+
+    @Override
+    public void close() {
+        IMetricsTracker delegate = this.delegate;
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    /**
+     * @return connections in use right now.
+     */
+    public int inUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Takes usage since previous sample and starts new one.
+     *
+     * @return pool usage since previous sample.
+     */
+    public Sample sample() {
+        return new Sample(acquires.sumThenReset(), waitNanos.sumThenReset(), timeouts.sumThenReset(),
+                peakInUse.getAndSet(inUse.get()));
+    }
+
+}
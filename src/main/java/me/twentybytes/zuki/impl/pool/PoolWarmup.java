@@ -0,0 +1,137 @@
+package me.twentybytes.zuki.impl.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.pool.WarmupPolicy;
+import me.twentybytes.zuki.api.pool.WarmupReport;
+import me.twentybytes.zuki.impl.execution.Threads;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool warm-up. Warmed connections are held until all of them are opened, so pool
+ * opens new connection for every borrow instead of handing out the same idle one.
+ * Hot queries are prepared and closed, which leaves them in driver statement cache.
+ */
+@Slf4j
+@UtilityClass
+public class PoolWarmup {
+
+    /**
+     * Warms pool up on separate threads.
+     *
+     * @param source pool.
+     * @param policy warm-up settings.
+     * @return       future of warm-up report, completed exceptionally if no connection was opened.
+     */
+    public CompletableFuture<WarmupReport> start(@NotNull HikariDataSource source, @NotNull WarmupPolicy policy) {
+        CompletableFuture<WarmupReport> future = new CompletableFuture<>();
+        Thread thread = Threads.daemon("zuki-warmup").newThread(() -> {
+            try {
+                future.complete(run(source, policy));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Warms pool up, blocks until warm-up is done or timed out.
+     *
+     * @param source pool.
+     * @param policy warm-up settings.
+     * @return       warm-up report.
+     * @throws SQLException if no connection was opened.
+     */
+    public WarmupReport run(@NotNull HikariDataSource source, @NotNull WarmupPolicy policy) throws SQLException {
+        int target = Math.min(policy.getConnections() > 0 ? policy.getConnections() : source.getMinimumIdle(), source.getMaximumPoolSize());
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(policy.getTimeout());
+
+        List<Connection> held = new ArrayList<>(target);
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicLong prepared = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(policy.getParallelism(), Math.max(target, 1)), Threads.daemon("zuki-warmup"));
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(target);
+            for (int i = 0; i < target; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return;
+                    }
+
+                    Connection connection;
+                    try {
+                        connection = source.getConnection();
+                    } catch (SQLException exception) {
+                        failed.incrementAndGet();
+                        failure.compareAndSet(null, exception);
+                        return;
+                    }
+                    synchronized (held) {
+                        // borrowed after timeout.
+                        if (released.get()) {
+                            close(connection);
+                            return;
+                        }
+                        held.add(connection);
+                    }
+
+                    for (String query : policy.getQueries()) {
+                        try {
+                            connection.prepareStatement(query).close();
+                            prepared.incrementAndGet();
+                        } catch (SQLException exception) {
+                            failed.incrementAndGet();
+                            log.warn("Warm-up query preparing failed: {} ({})", query, exception.getMessage());
+                        }
+                    }
+                }, executor));
+            }
+
+            try {
+                CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new)).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (Exception exception) {
+                log.warn("Pool {} warm-up is not finished in {} ms", source.getPoolName(), policy.getTimeout());
+            }
+        } finally {
+            executor.shutdownNow();
+            synchronized (held) {
+                released.set(true);
+                held.forEach(PoolWarmup::close);
+            }
+        }
+
+        WarmupReport report = new WarmupReport(held.size(), prepared.get(), failed.get(), System.nanoTime() - start);
+        if (report.getConnections() == 0 && target > 0) {
+            throw new SQLException("Pool " + source.getPoolName() + " warm-up failed, no connection was opened", failure.get());
+        }
+        log.info("Pool {} is warmed up: {}", source.getPoolName(), report);
+        return report;
+    }
+
+    private void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // connection is evicted by pool.
+        }
+    }
+
+}
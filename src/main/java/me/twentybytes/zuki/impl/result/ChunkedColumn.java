@@ -0,0 +1,381 @@
+package me.twentybytes.zuki.impl.result;
+
+import me.twentybytes.zuki.api.result.ColumnType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column of fixed size chunks. Rows are addressed by chunk (row >> shift) and
+ * offset (row & mask), so growing column never copies values, only small array of chunks.
+ * NULL bitmap chunks are allocated only for chunks which contain NULLs.
+ */
+public abstract class ChunkedColumn {
+
+    protected final String name;
+    protected final int shift;
+    protected final int mask;
+    private long[][] nulls = new long[4][];
+
+    protected ChunkedColumn(String name, int shift) {
+        this.name = name;
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public abstract ColumnType type();
+
+    /**
+     * Reads value of current row of result set.
+     *
+     * @param set    result set positioned on row.
+     * @param column result set column number.
+     * @param row    row index.
+     */
+    public abstract void read(ResultSet set, int column, int row) throws SQLException;
+
+    public abstract int getInt(int row);
+
+    public abstract long getLong(int row);
+
+    public abstract double getDouble(int row);
+
+    public abstract String getString(int row);
+
+    /**
+     * @param chunks allocated chunks count.
+     * @return       approximate heap size of values.
+     */
+    protected abstract long chunksMemory(int chunks);
+
+    public boolean isNull(int row) {
+        int chunk = row >>> shift;
+        if (chunk >= nulls.length || nulls[chunk] == null) {
+            return false;
+        }
+        int offset = row & mask;
+        return (nulls[chunk][offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    protected void markNull(int row) {
+        int chunk = row >>> shift;
+        if (chunk >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, Math.max(nulls.length * 2, chunk + 1));
+        }
+        if (nulls[chunk] == null) {
+            nulls[chunk] = new long[Math.max((mask + 1) >>> 6, 1)];
+        }
+        int offset = row & mask;
+        nulls[chunk][offset >>> 6] |= 1L << offset;
+    }
+
+    /**
+     * @param rows rows count.
+     * @return     approximate heap size of column.
+     */
+    public long memory(long rows) {
+        int chunks = (int) ((rows + mask) >>> shift);
+        long bitmaps = 0;
+        for (long[] bitmap : nulls) {
+            bitmaps += bitmap == null ? 0 : bitmap.length * 8L;
+        }
+        return chunksMemory(chunks) + bitmaps;
+    }
+
+    protected static int grow(int length, int chunk) {
+        return Math.max(length * 2, chunk + 1);
+    }
+
+    /**
+     * 32-bit integers.
+     */
+    public static final class Ints extends ChunkedColumn {
+
+        private int[][] chunks = new int[4][];
+
+        public Ints(String name, int shift) {
+            super(name, shift);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.INT;
+        }
+
+        @Override
+        public void read(ResultSet set, int column, int row) throws SQLException {
+            int value = set.getInt(column);
+            if (value == 0 && set.wasNull()) {
+                markNull(row);
+            }
+            int chunk = row >>> shift;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, grow(chunks.length, chunk));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new int[mask + 1];
+            }
+            chunks[chunk][row & mask] = value;
+        }
+
+        @Override
+        public int getInt(int row) {
+            return chunks[row >>> shift][row & mask];
+        }
+
+        @Override
+        public long getLong(int row) {
+            return getInt(row);
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return getInt(row);
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : String.valueOf(getInt(row));
+        }
+
+        @Override
+        protected long chunksMemory(int chunks) {
+            return chunks * 4L * (mask + 1);
+        }
+
+    }
+
+    /**
+     * 64-bit integers, temporal values are stored as epoch millis.
+     */
+    public static final class Longs extends ChunkedColumn {
+
+        private final boolean temporal;
+        private long[][] chunks = new long[4][];
+
+        public Longs(String name, int shift, boolean temporal) {
+            super(name, shift);
+            this.temporal = temporal;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.LONG;
+        }
+
+        @Override
+        public void read(ResultSet set, int column, int row) throws SQLException {
+            long value;
+            if (temporal) {
+                Timestamp timestamp = set.getTimestamp(column);
+                value = timestamp == null ? 0 : timestamp.getTime();
+                if (timestamp == null) {
+                    markNull(row);
+                }
+            } else {
+                value = set.getLong(column);
+                if (value == 0 && set.wasNull()) {
+                    markNull(row);
+                }
+            }
+
+            int chunk = row >>> shift;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, grow(chunks.length, chunk));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new long[mask + 1];
+            }
+            chunks[chunk][row & mask] = value;
+        }
+
+        @Override
+        public int getInt(int row) {
+            return (int) getLong(row);
+        }
+
+        @Override
+        public long getLong(int row) {
+            return chunks[row >>> shift][row & mask];
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return getLong(row);
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : String.valueOf(getLong(row));
+        }
+
+        @Override
+        protected long chunksMemory(int chunks) {
+            return chunks * 8L * (mask + 1);
+        }
+
+    }
+
+    /**
+     * 64-bit floating point values.
+     */
+    public static final class Doubles extends ChunkedColumn {
+
+        private double[][] chunks = new double[4][];
+
+        public Doubles(String name, int shift) {
+            super(name, shift);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.DOUBLE;
+        }
+
+        @Override
+        public void read(ResultSet set, int column, int row) throws SQLException {
+            double value = set.getDouble(column);
+            if (value == 0 && set.wasNull()) {
+                markNull(row);
+            }
+            int chunk = row >>> shift;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, grow(chunks.length, chunk));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new double[mask + 1];
+            }
+            chunks[chunk][row & mask] = value;
+        }
+
+        @Override
+        public int getInt(int row) {
+            return (int) getDouble(row);
+        }
+
+        @Override
+        public long getLong(int row) {
+            return (long) getDouble(row);
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return chunks[row >>> shift][row & mask];
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : String.valueOf(getDouble(row));
+        }
+
+        @Override
+        protected long chunksMemory(int chunks) {
+            return chunks * 8L * (mask + 1);
+        }
+
+    }
+
+    /**
+     * Dictionary encoded strings: chunks keep codes, every distinct value is stored once.
+     */
+    public static final class Strings extends ChunkedColumn {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[][] chunks = new int[4][];
+        private long dictionaryMemory;
+
+        public Strings(String name, int shift) {
+            super(name, shift);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        public void read(ResultSet set, int column, int row) throws SQLException {
+            String value = set.getString(column);
+            int code = -1;
+            if (value == null) {
+                markNull(row);
+            } else {
+                Integer known = codes.get(value);
+                if (known == null) {
+                    known = dictionary.size();
+                    codes.put(value, known);
+                    dictionary.add(value);
+                    // string, its array and map entry.
+                    dictionaryMemory += 40L + value.length() * 2L + 48L;
+                }
+                code = known;
+            }
+
+            int chunk = row >>> shift;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, grow(chunks.length, chunk));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new int[mask + 1];
+            }
+            chunks[chunk][row & mask] = code;
+        }
+
+        /**
+         * @param row row index.
+         * @return    dictionary code of value, -1 for NULL.
+         */
+        public int code(int row) {
+            return chunks[row >>> shift][row & mask];
+        }
+
+        /**
+         * @return distinct values count.
+         */
+        public int cardinality() {
+            return dictionary.size();
+        }
+
+        @Override
+        public int getInt(int row) {
+            String value = getString(row);
+            return value == null ? 0 : Integer.parseInt(value.trim());
+        }
+
+        @Override
+        public long getLong(int row) {
+            String value = getString(row);
+            return value == null ? 0 : Long.parseLong(value.trim());
+        }
+
+        @Override
+        public double getDouble(int row) {
+            String value = getString(row);
+            return value == null ? 0 : Double.parseDouble(value.trim());
+        }
+
+        @Override
+        public String getString(int row) {
+            int code = code(row);
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        protected long chunksMemory(int chunks) {
+            return chunks * 4L * (mask + 1) + dictionaryMemory;
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package me.twentybytes.zuki.impl.result;
+
+import me.twentybytes.zuki.api.result.ColumnCursor;
+import me.twentybytes.zuki.api.result.ColumnType;
+import me.twentybytes.zuki.api.result.ColumnarResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link ColumnarResult} of chunked columns, filled row by row directly from
+ * result set with primitive getters.
+ */
+public class ColumnarRows implements ColumnarResult {
+
+    private final ChunkedColumn[] columns;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final int rows;
+
+    private ColumnarRows(ChunkedColumn[] columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        for (int i = columns.length - 1; i >= 0; i--) {
+            indexes.put(columns[i].name().toLowerCase(Locale.ROOT), i + 1);
+        }
+    }
+
+    /**
+     * Reads all remaining rows of result set. With streaming fetch size driver
+     * keeps only current rows, so memory is bounded by stored columns only.
+     *
+     * @param set       result set.
+     * @param chunkRows rows per chunk, rounded up to power of two (from 64 to 2^30).
+     * @param maxRows   max rows count, 0 or less means no limit.
+     * @return          columnar rows.
+     * @throws SQLException if result has more than max rows or reading fails.
+     */
+    public static ColumnarRows read(@NotNull ResultSet set, int chunkRows, long maxRows) throws SQLException {
+        int shift = Math.min(30, Math.max(6, 32 - Integer.numberOfLeadingZeros(Math.max(chunkRows, 1) - 1)));
+        ResultSetMetaData meta = set.getMetaData();
+        ChunkedColumn[] columns = new ChunkedColumn[meta.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column(meta, i + 1, shift);
+        }
+
+        long limit = maxRows > 0 ? Math.min(maxRows, Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        int row = 0;
+        while (set.next()) {
+            if (row >= limit) {
+                throw new SQLException("Columnar result exceeds " + limit + " rows");
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].read(set, i + 1, row);
+            }
+            row++;
+        }
+        return new ColumnarRows(columns, row);
+    }
+
+    private static ChunkedColumn column(ResultSetMetaData meta, int column, int shift) throws SQLException {
+        String name = meta.getColumnLabel(column);
+        switch (meta.getColumnType(column)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return new ChunkedColumn.Ints(name, shift);
+            case Types.INTEGER:
+                // unsigned int does not fit int.
+                return meta.isSigned(column) ? new ChunkedColumn.Ints(name, shift) : new ChunkedColumn.Longs(name, shift, false);
+            case Types.BIGINT:
+                return new ChunkedColumn.Longs(name, shift, false);
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return new ChunkedColumn.Longs(name, shift, true);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return new ChunkedColumn.Doubles(name, shift);
+            default:
+                return new ChunkedColumn.Strings(name, shift);
+        }
+    }
+
+    @Override
+    public int rowCount() {
+        return rows;
+    }
+
+    @Override
+    public int columnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String columnName(int column) {
+        return columns[column - 1].name();
+    }
+
+    @Override
+    public ColumnType columnType(int column) {
+        return columns[column - 1].type();
+    }
+
+    @Override
+    public int columnIndex(@NotNull String name) {
+        Integer index = indexes.get(name.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * @param column column number, starts from 1.
+     * @return       column storage.
+     */
+    public ChunkedColumn column(int column) {
+        return columns[column - 1];
+    }
+
+    @Override
+    public ColumnCursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public long memory() {
+        long memory = 0;
+        for (ChunkedColumn column : columns) {
+            memory += column.memory(rows);
+        }
+        return memory;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarRows(columns=" + columns.length + ", rows=" + rows + ", memory=" + memory() + ")";
+    }
+
+    private final class Cursor implements ColumnCursor {
+
+        private int row = -1;
+
+        @Override
+        public boolean next() {
+            if (row + 1 >= rows) {
+                row = rows;
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        @Override
+        public int row() {
+            return row;
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return columns[column - 1].isNull(row);
+        }
+
+        @Override
+        public int getInt(int column) {
+            return columns[column - 1].getInt(row);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return columns[column - 1].getLong(row);
+        }
+
+        @Override
+        public double getDouble(int column) {
+            return columns[column - 1].getDouble(row);
+        }
+
+        @Override
+        public String getString(int column) {
+            return columns[column - 1].getString(row);
+        }
+
+    }
+
+}
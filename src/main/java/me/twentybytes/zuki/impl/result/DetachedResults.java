@@ -0,0 +1,54 @@
+package me.twentybytes.zuki.impl.result;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Disconnected copies of result sets, which stay readable after
+ * connection is returned to the pool. Copies are {@link CachedRowSet}
+ * with boxed value per cell, not compact storage.
+ */
+@UtilityClass
+public class DetachedResults {
+
+    private final RowSetFactory FACTORY = newFactory();
+
+    /**
+     * Reads all remaining rows of result set into memory.
+     *
+     * @param set live result set.
+     * @return    disconnected rows.
+     */
+    @NotNull
+    public CachedRowSet detach(@NotNull ResultSet set) throws SQLException {
+        CachedRowSet rows = FACTORY.createCachedRowSet();
+        rows.populate(set);
+        return rows;
+    }
+
+    /**
+     * @param rows detached rows.
+     * @return     new read cursor (positioned before first row) over the same rows.
+     */
+    @NotNull
+    public ResultSet share(@NotNull CachedRowSet rows) throws SQLException {
+        ResultSet shared = rows.createShared();
+        shared.beforeFirst();
+        return shared;
+    }
+
+    private RowSetFactory newFactory() {
+        try {
+            return RowSetProvider.newFactory();
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Row set factory is not available", exception);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package me.twentybytes.zuki.impl.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Read replica pool with its health state.
+ */
+@Getter @ToString(onlyExplicitlyIncluded = true)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Replica {
+
+    @ToString.Include
+    final String name;
+    final HikariDataSource source;
+
+    @ToString.Include
+    volatile boolean healthy = true;
+
+    /**
+     * Last seen replication lag in seconds, -1 if unknown.
+     */
+    @ToString.Include
+    volatile long lag = -1;
+
+    /**
+     * False after server rejected replication status queries.
+     */
+    volatile boolean lagSupported = true;
+
+    public Replica(@NotNull HikariDataSource source) {
+        this.name = source.getJdbcUrl();
+        this.source = source;
+    }
+
+    /**
+     * @return connections currently borrowed from replica pool.
+     */
+    public int inFlight() {
+        HikariPoolMXBean pool = source.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    void healthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void lag(long lag) {
+        this.lag = lag;
+    }
+
+    void lagUnsupported() {
+        this.lagSupported = false;
+    }
+
+}
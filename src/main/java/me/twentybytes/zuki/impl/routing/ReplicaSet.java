@@ -0,0 +1,231 @@
+package me.twentybytes.zuki.impl.routing;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.routing.LoadBalancing;
+import me.twentybytes.zuki.api.routing.ReplicaPolicy;
+import me.twentybytes.zuki.impl.execution.Threads;
+import me.twentybytes.zuki.impl.pool.PoolConfigs;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replica pools of one database. Selects are routed to healthy replicas,
+ * replicas failing validation, connection or lagging too much are excluded
+ * until next successful health check. Without healthy replicas primary is used.
+ * Health checks run on own thread, so blocking connection attempts to unavailable
+ * replica do not occupy request threads.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    /**
+     * Provides primary connection.
+     */
+    @FunctionalInterface
+    public interface Primary {
+        Connection connection() throws SQLException;
+    }
+
+    @Getter
+    private final List<Replica> replicas;
+    private final Replica[] array;
+    private final ReplicaPolicy policy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private final ScheduledExecutorService healthCheck = Threads.timer("zuki-replica-health");
+
+    /**
+     * Replicas are checked once before set is returned, so unavailable replica is excluded
+     * before first request (start waits up to connection timeout of such replica).
+     *
+     * @param configs replica pool configs, they are not changed, replicas unavailable on start do not fail pool creation.
+     * @param policy  routing policy.
+     */
+    public ReplicaSet(@NotNull List<HikariConfig> configs, @NotNull ReplicaPolicy policy) {
+        List<Replica> replicas = new ArrayList<>(configs.size());
+        for (HikariConfig config : configs) {
+            HikariConfig replica = PoolConfigs.copy(config);
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(new HikariDataSource(replica)));
+        }
+
+        this.replicas = Collections.unmodifiableList(replicas);
+        this.array = replicas.toArray(new Replica[0]);
+        this.policy = policy;
+
+        check();
+        healthCheck.scheduleWithFixedDelay(this::check,
+                policy.getHealthCheckInterval(), policy.getHealthCheckInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param primary primary connection source.
+     * @return        connection of selected healthy replica or primary connection.
+     */
+    public Connection connection(@NotNull Primary primary) throws SQLException {
+        for (int attempt = 0; attempt < array.length; attempt++) {
+            Replica replica = select();
+            if (replica == null) {
+                break;
+            }
+
+            try {
+                return replica.getSource().getConnection();
+            } catch (SQLException exception) {
+                exclude(replica, exception.getMessage());
+            }
+        }
+        return primary.connection();
+    }
+
+    /**
+     * @return healthy replicas count.
+     */
+    public int healthy() {
+        int healthy = 0;
+        for (Replica replica : array) {
+            if (replica.isHealthy()) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Checks all replicas on current thread, concurrent checks are skipped.
+     */
+    public void check() {
+        if (!checking.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            for (Replica replica : array) {
+                check(replica);
+            }
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : array) {
+            replica.getSource().close();
+        }
+    }
+
+    private Replica select() {
+        if (policy.getBalancing() == LoadBalancing.ROUND_ROBIN) {
+            // rotation over healthy replicas only, so excluded one does not double load of its neighbour.
+            int healthy = healthy();
+            if (healthy == 0) {
+                return null;
+            }
+
+            int index = Math.floorMod(next.getAndIncrement(), healthy);
+            for (Replica replica : array) {
+                if (replica.isHealthy() && index-- == 0) {
+                    return replica;
+                }
+            }
+            return null;
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), array.length);
+        // rotating start spreads ties.
+        Replica best = null;
+        int least = Integer.MAX_VALUE;
+        for (int i = 0; i < array.length; i++) {
+            Replica replica = array[(start + i) % array.length];
+            if (!replica.isHealthy()) {
+                continue;
+            }
+
+            int inFlight = replica.inFlight();
+            if (inFlight < least) {
+                least = inFlight;
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.getSource().getConnection()) {
+            if (!connection.isValid(policy.getValidationTimeout())) {
+                // broken connection is not returned to pool, next check opens new one.
+                replica.getSource().evictConnection(connection);
+                exclude(replica, "connection validation failed");
+                return;
+            }
+
+            if (policy.getMaxLag() > 0 && replica.isLagSupported()) {
+                long lag = lag(replica, connection);
+                replica.lag(lag);
+                if (lag < 0 || lag > policy.getMaxLag()) {
+                    exclude(replica, lag < 0 ? "replication is stopped" : "replication lag " + lag + "s");
+                    return;
+                }
+            }
+
+            if (!replica.isHealthy()) {
+                replica.healthy(true);
+                log.info("Replica " + replica.getName() + " is healthy again.");
+            }
+        } catch (SQLException exception) {
+            exclude(replica, exception.getMessage());
+        }
+    }
+
+    /**
+     * @return replication lag in seconds, 0 if server is not replica, -1 if replication is stopped.
+     */
+    private long lag(Replica replica, Connection connection) throws SQLException {
+        SQLException failure = null;
+        for (String[] query : new String[][] {
+                {"SHOW REPLICA STATUS", "Seconds_Behind_Source"},
+                {"SHOW SLAVE STATUS", "Seconds_Behind_Master"}}) {
+            try (Statement statement = connection.createStatement(); ResultSet set = statement.executeQuery(query[0])) {
+                if (!set.next()) {
+                    return 0;
+                }
+
+                long lag = set.getLong(query[1]);
+                return set.wasNull() ? -1 : lag;
+            } catch (SQLException exception) {
+                failure = exception;
+            }
+        }
+
+        if (!connection.isValid(policy.getValidationTimeout())) {
+            throw failure;
+        }
+        replica.lagUnsupported();
+        log.warn("Replica " + replica.getName() + " does not report replication status, lag checks are disabled. Message: " + failure.getMessage());
+        return 0;
+    }
+
+    private void exclude(Replica replica, String reason) {
+        if (replica.isHealthy()) {
+            replica.healthy(false);
+            log.warn("Replica " + replica.getName() + " is excluded from routing: " + reason);
+        }
+    }
+
+}
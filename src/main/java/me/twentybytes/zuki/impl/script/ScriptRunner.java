@@ -0,0 +1,212 @@
+package me.twentybytes.zuki.impl.script;
+
+import lombok.experimental.UtilityClass;
+import me.twentybytes.zuki.api.script.Script;
+import me.twentybytes.zuki.api.script.ScriptResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Executes {@link Script}: statements are read by {@link SqlScriptReader} and executed
+ * on single reused statement, grouped into jdbc batches and transactions.
+ */
+@UtilityClass
+public class ScriptRunner {
+
+    /**
+     * @param connection executing connection, autocommit is restored after execution.
+     * @param script     script specification.
+     * @return           execution result.
+     */
+    public ScriptResult run(@NotNull Connection connection, @NotNull Script script) throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        try (SqlScriptReader reader = new SqlScriptReader(script.getSource().open());
+             Statement statement = connection.createStatement()) {
+            if (script.getTransactionSize() > 0) {
+                connection.setAutoCommit(false);
+            }
+
+            Execution execution = new Execution(connection, statement, script);
+            try {
+                String sql;
+                while ((sql = reader.next()) != null) {
+                    execution.add(sql, reader.statementLine());
+                }
+                execution.finish();
+            } catch (SQLException | IOException | RuntimeException exception) {
+                execution.rollback(exception);
+                throw exception;
+            }
+            return execution.result();
+        } finally {
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * @return true if statement may return result set and can not be batched.
+     */
+    boolean isQuery(String sql) {
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+
+        return switch (sql.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "SELECT", "SHOW", "DESCRIBE", "DESC", "EXPLAIN", "WITH", "CALL", "VALUES", "TABLE", "CHECK", "ANALYZE", "OPTIMIZE", "REPAIR", "CHECKSUM", "HELP" -> true;
+            default -> false;
+        };
+    }
+
+    private static class Execution {
+
+        private final Connection connection;
+        private final Statement statement;
+        private final Script script;
+        private final long start = System.nanoTime();
+
+        private final List<String> batch = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+
+        private long statements;
+        private long failed;
+        private long commits;
+        private long uncommitted;
+
+        Execution(Connection connection, Statement statement, Script script) {
+            this.connection = connection;
+            this.statement = statement;
+            this.script = script;
+        }
+
+        void add(String sql, long line) throws SQLException {
+            if (script.getBatchSize() == 1 || isQuery(sql)) {
+                flush();
+                single(sql, line);
+            } else {
+                statement.addBatch(sql);
+                batch.add(sql);
+                lines.add(line);
+                if (batch.size() >= script.getBatchSize()) {
+                    flush();
+                }
+            }
+
+            if (script.getTransactionSize() > 0 && uncommitted + batch.size() >= script.getTransactionSize()) {
+                flush();
+                commit();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            if (script.getTransactionSize() > 0) {
+                commit();
+            }
+        }
+
+        void rollback(Exception exception) {
+            if (script.getTransactionSize() > 0 && uncommitted > 0) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollback) {
+                    exception.addSuppressed(rollback);
+                }
+            }
+        }
+
+        ScriptResult result() {
+            return new ScriptResult(statements, failed, commits, System.nanoTime() - start);
+        }
+
+        private void single(String sql, long line) throws SQLException {
+            long begin = System.nanoTime();
+            try {
+                if (statement.execute(sql)) {
+                    statement.getResultSet().close();
+                }
+                executed(sql, line, System.nanoTime() - begin, false);
+            } catch (SQLException exception) {
+                executed(sql, line, System.nanoTime() - begin, true);
+                if (script.isStopOnError()) {
+                    throw failure(exception, line);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            long begin = System.nanoTime();
+            int[] counts;
+            SQLException error = null;
+            try {
+                counts = statement.executeBatch();
+            } catch (BatchUpdateException exception) {
+                counts = exception.getUpdateCounts() == null ? new int[0] : exception.getUpdateCounts();
+                error = exception;
+            } finally {
+                statement.clearBatch();
+            }
+
+            long average = (System.nanoTime() - begin) / batch.size();
+            long failedLine = -1;
+            for (int i = 0; i < batch.size(); i++) {
+                // statements after driver stopped batch are failed too.
+                boolean failure = i >= counts.length ? error != null : counts[i] == Statement.EXECUTE_FAILED;
+                if (failure && failedLine == -1) {
+                    failedLine = lines.get(i);
+                }
+                executed(batch.get(i), lines.get(i), average, failure);
+            }
+            batch.clear();
+            lines.clear();
+
+            if (error != null && script.isStopOnError()) {
+                throw failure(error, failedLine);
+            }
+        }
+
+        private void commit() throws SQLException {
+            if (uncommitted > 0) {
+                connection.commit();
+                commits++;
+                uncommitted = 0;
+            }
+        }
+
+        private void executed(String sql, long line, long elapsed, boolean failure) {
+            statements++;
+            uncommitted++;
+            if (failure) {
+                failed++;
+            }
+
+            if (script.getListener() != null) {
+                script.getListener().onStatement(sql, line, elapsed, failure);
+            }
+            if (script.getProgress() != null && statements % script.getProgressInterval() == 0) {
+                script.getProgress().accept(result());
+            }
+        }
+
+        private SQLException failure(SQLException exception, long line) {
+            return new SQLException("Script statement at line " + line + " failed: " + exception.getMessage(),
+                    exception.getSQLState(), exception.getErrorCode(), exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,323 @@
+package me.twentybytes.zuki.impl.script;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Streaming sql script tokenizer. Splits script into statements by current
+ * delimiter, ignoring delimiters inside quotes ({@code '...'}, {@code "..."}, {@code `...`})
+ * and comments ({@code -- }, {@code #}, {@code /* *}{@code /}).
+ * Supports mysql client {@code DELIMITER} command. Comments are dropped,
+ * except executable ({@code /*!...*}{@code /}) and hint ({@code /*+...*}{@code /}) ones.
+ */
+public class SqlScriptReader implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder statement = new StringBuilder(256);
+
+    private int position;
+    private int limit;
+    private String delimiter = ";";
+    private long line = 1;
+    private long statementLine;
+
+    public SqlScriptReader(@NotNull Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return line number where last returned statement starts.
+     */
+    public long statementLine() {
+        return statementLine;
+    }
+
+    /**
+     * @return next statement without delimiter or null if script is ended.
+     */
+    public String next() throws IOException {
+        statement.setLength(0);
+        boolean content = false;
+
+        int c;
+        while (true) {
+            if (content && delimiter.length() == 1) {
+                copyPlain();
+            }
+            if ((c = read()) == -1) {
+                break;
+            }
+            char ch = (char) c;
+
+            if (!content) {
+                if (Character.isWhitespace(ch)) {
+                    continue;
+                }
+
+                if ((ch == 'd' || ch == 'D') && readDelimiterCommand(ch)) {
+                    continue;
+                }
+            }
+
+            switch (ch) {
+                case '\'', '"', '`' -> {
+                    content = start(content);
+                    quoted(ch);
+                    continue;
+                }
+                case '#' -> {
+                    skipLine();
+                    continue;
+                }
+                case '-' -> {
+                    if (peek(0) == '-' && (peek(1) == -1 || Character.isWhitespace(peek(1)))) {
+                        skipLine();
+                        continue;
+                    }
+                }
+                case '/' -> {
+                    if (peek(0) == '*') {
+                        int kind = peek(1);
+                        boolean keep = kind == '!' || kind == '+';
+                        if (keep) {
+                            content = start(content);
+                        }
+                        blockComment(keep);
+                        continue;
+                    }
+                }
+                default -> {
+                }
+            }
+
+            content = start(content);
+            statement.append(ch);
+            if (endsWithDelimiter()) {
+                statement.setLength(statement.length() - delimiter.length());
+                String result = statement.toString().trim();
+                if (!result.isEmpty()) {
+                    return result;
+                }
+                content = false;
+            }
+        }
+
+        String result = statement.toString().trim();
+        return result.isEmpty() ? null : result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Copies run of chars which can not start quote, comment or delimiter
+     * from buffer at once, avoiding per char handling of statement body.
+     */
+    private void copyPlain() throws IOException {
+        char end = delimiter.charAt(0);
+        while (position < limit || fill(1)) {
+            int start = position;
+            while (position < limit) {
+                char ch = buffer[position];
+                if (ch == end || ch == '\'' || ch == '"' || ch == '`' || ch == '#' || ch == '-' || ch == '/') {
+                    break;
+                }
+                if (ch == '\n') {
+                    line++;
+                }
+                position++;
+            }
+
+            statement.append(buffer, start, position - start);
+            if (position < limit) {
+                return;
+            }
+        }
+    }
+
+    private boolean start(boolean content) {
+        if (!content) {
+            statementLine = line;
+        }
+        return true;
+    }
+
+    private boolean endsWithDelimiter() {
+        int length = delimiter.length();
+        if (length == 1) {
+            return statement.charAt(statement.length() - 1) == delimiter.charAt(0);
+        }
+
+        int from = statement.length() - length;
+        if (from < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (statement.charAt(from + i) != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads {@code DELIMITER xx} command at statement start, first char is already consumed.
+     */
+    private boolean readDelimiterCommand(char first) throws IOException {
+        String keyword = "delimiter";
+        for (int i = 1; i < keyword.length(); i++) {
+            int c = peek(i - 1);
+            if (c == -1 || Character.toLowerCase((char) c) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+
+        int after = peek(keyword.length() - 1);
+        if (after != ' ' && after != '\t') {
+            return false;
+        }
+
+        position += keyword.length() - 1;
+        StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            value.append((char) c);
+        }
+
+        String parsed = value.toString().trim();
+        if (parsed.isEmpty()) {
+            throw new IOException("Empty delimiter at line " + line);
+        }
+        delimiter = parsed.toLowerCase(Locale.ROOT).equals("delimiter") ? delimiter : parsed;
+        return true;
+    }
+
+    private void quoted(char quote) throws IOException {
+        statement.append(quote);
+        int c;
+        while (true) {
+            copyQuoted(quote);
+            if ((c = read()) == -1) {
+                return;
+            }
+
+            statement.append((char) c);
+            if (c == '\\' && quote != '`') {
+                int escaped = read();
+                if (escaped != -1) {
+                    statement.append((char) escaped);
+                }
+            } else if (c == quote) {
+                if (peek(0) == quote) {
+                    statement.append((char) read());
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies run of quoted chars up to closing quote or escape at once.
+     */
+    private void copyQuoted(char quote) throws IOException {
+        while (position < limit || fill(1)) {
+            int start = position;
+            while (position < limit) {
+                char ch = buffer[position];
+                if (ch == quote || ch == '\\') {
+                    break;
+                }
+                if (ch == '\n') {
+                    line++;
+                }
+                position++;
+            }
+
+            statement.append(buffer, start, position - start);
+            if (position < limit) {
+                return;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            // skip comment
+        }
+        if (c == '\n' && statement.length() > 0) {
+            statement.append('\n');
+        }
+    }
+
+    private void blockComment(boolean keep) throws IOException {
+        read(); // '*'
+        if (keep) {
+            statement.append("/*");
+        }
+
+        int previous = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (keep) {
+                statement.append((char) c);
+            }
+            if (previous == '*' && c == '/') {
+                break;
+            }
+            previous = c;
+        }
+
+        if (!keep && statement.length() > 0) {
+            statement.append(' ');
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill(1)) {
+            return -1;
+        }
+
+        char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek(int offset) throws IOException {
+        if (position + offset >= limit && !fill(offset + 1)) {
+            return -1;
+        }
+        return buffer[position + offset];
+    }
+
+    /**
+     * Ensures that at least required chars are available after position.
+     */
+    private boolean fill(int required) throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (limit < required) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+}
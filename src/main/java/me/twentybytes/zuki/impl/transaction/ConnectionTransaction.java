@@ -0,0 +1,105 @@
+package me.twentybytes.zuki.impl.transaction;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.experimental.FieldDefaults;
+import me.twentybytes.zuki.api.callback.RowMapper;
+import me.twentybytes.zuki.api.callback.SelectCallback;
+import me.twentybytes.zuki.api.callback.UpdateCallback;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import me.twentybytes.zuki.api.transaction.Transaction;
+import me.twentybytes.zuki.impl.execution.Deadline;
+import me.twentybytes.zuki.impl.mapping.RowMappers;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Transaction} over connection with disabled autocommit.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ConnectionTransaction implements Transaction {
+
+    /**
+     * Binds arguments to prepared statement.
+     */
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement prepared, Object[] args) throws SQLException;
+    }
+
+    Connection connection;
+    Binder binder;
+
+    /**
+     * Deadline of transaction, running statement is cancelled when it passes.
+     */
+    Deadline deadline;
+
+    @Override
+    public int update(@NotNull String query, Object... args) throws SQLException {
+        try (PreparedStatement prepared = connection.prepareStatement(query)) {
+            binder.bind(prepared, args);
+            deadline.attach(prepared);
+            try {
+                return prepared.executeUpdate();
+            } finally {
+                deadline.detach();
+            }
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    public void select(@NotNull String query, @NotNull SelectCallback callback, Object... args) throws SQLException {
+        try (PreparedStatement prepared = connection.prepareStatement(query)) {
+            binder.bind(prepared, args);
+            deadline.attach(prepared);
+            try (ResultSet set = prepared.executeQuery()) {
+                callback.run(set);
+            } finally {
+                deadline.detach();
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> select(@NotNull String query, @NotNull Class<T> type, Object... args) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        select(query, set -> {
+            RowMapper<T> mapper = RowMappers.of(type, set.getMetaData());
+            while (set.next()) {
+                rows.add(mapper.map(set));
+            }
+        }, args);
+        return rows;
+    }
+
+    @Override
+    public void execute(@NotNull Request request) throws SQLException {
+        if (request.getRequestType() == RequestType.UPDATE) {
+            int updates = update(request.getBody(), request.getArgs());
+            if (request.getCallback() != null) {
+                ((UpdateCallback) request.getCallback()).run(updates);
+            }
+            return;
+        }
+
+        SelectCallback callback = (SelectCallback) request.getCallback();
+        select(request.getBody(), callback != null ? callback : set -> {}, request.getArgs());
+    }
+
+    @Override
+    public Connection connection() {
+        return connection;
+    }
+
+}
@@ -0,0 +1,141 @@
+package me.twentybytes.zuki.impl.transaction;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import me.twentybytes.zuki.api.transaction.Isolation;
+import me.twentybytes.zuki.api.transaction.TransactionCallback;
+import me.twentybytes.zuki.api.transaction.TransactionPolicy;
+import me.twentybytes.zuki.impl.execution.Deadline;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes transaction body on one connection: commits on success,
+ * rolls back on any failure and retries transient concurrency failures.
+ * Retry backoff is scheduled on timer, so no thread sleeps between attempts.
+ */
+@Slf4j
+@UtilityClass
+public class TransactionRunner {
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * Provides transaction connection.
+     */
+    @FunctionalInterface
+    public interface Connections {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * First attempt is run on current thread, retries are run on executor after backoff delay.
+     *
+     * @param connections connection source, every attempt uses new connection.
+     * @param binder      arguments binder.
+     * @param deadline    transaction deadline, expired transaction is not retried.
+     * @param policy      transaction policy.
+     * @param body        transaction body.
+     * @param timer       timer of retry backoff.
+     * @param executor    executor of retries.
+     * @return            future of body result of committed attempt.
+     */
+    public <T> CompletableFuture<T> run(@NotNull Connections connections, @NotNull ConnectionTransaction.Binder binder,
+                                        @NotNull Deadline deadline, @NotNull TransactionPolicy policy,
+                                        @NotNull TransactionCallback<T> body, @NotNull ScheduledExecutorService timer,
+                                        @NotNull Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        run(0, connections, binder, deadline, policy, body, timer, executor, result);
+        return result;
+    }
+
+    private <T> void run(int attempt, Connections connections, ConnectionTransaction.Binder binder, Deadline deadline,
+                         TransactionPolicy policy, TransactionCallback<T> body, ScheduledExecutorService timer,
+                         Executor executor, CompletableFuture<T> result) {
+        try {
+            result.complete(attempt(connections, binder, deadline, policy, body));
+        } catch (Throwable throwable) {
+            if (attempt >= policy.getMaxRetries() || !isRetryable(throwable) || deadline.isExpired()) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+
+            long delay = policy.getRetryDelay() << Math.min(attempt, 16);
+            log.debug("Transaction attempt " + (attempt + 1) + " failed, retrying. Message: " + throwable.getMessage());
+            Runnable retry = () -> {
+                try {
+                    executor.execute(() -> run(attempt + 1, connections, binder, deadline, policy, body, timer, executor, result));
+                } catch (RejectedExecutionException exception) {
+                    exception.addSuppressed(throwable);
+                    result.completeExceptionally(exception);
+                }
+            };
+            if (delay <= 0) {
+                retry.run();
+                return;
+            }
+
+            try {
+                timer.schedule(retry, delay + ThreadLocalRandom.current().nextLong(delay), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException exception) {
+                exception.addSuppressed(throwable);
+                result.completeExceptionally(exception);
+            }
+        }
+    }
+
+    /**
+     * @return true if failure is deadlock, lock wait timeout or serialization failure.
+     */
+    public boolean isRetryable(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            if (cause instanceof SQLException exception && ("40001".equals(exception.getSQLState())
+                    || exception.getErrorCode() == ER_LOCK_DEADLOCK || exception.getErrorCode() == ER_LOCK_WAIT_TIMEOUT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T attempt(Connections connections, ConnectionTransaction.Binder binder, Deadline deadline,
+                          TransactionPolicy policy, TransactionCallback<T> body) throws Throwable {
+        deadline.check();
+        // pool restores autocommit, isolation and read only state when connection is returned.
+        try (Connection connection = connections.get()) {
+            if (policy.getIsolation() != Isolation.DEFAULT) {
+                connection.setTransactionIsolation(policy.getIsolation().getLevel());
+            }
+            if (policy.isReadOnly()) {
+                connection.setReadOnly(true);
+            }
+            connection.setAutoCommit(false);
+
+            try {
+                T result = body.run(new ConnectionTransaction(connection, binder, deadline));
+                connection.commit();
+                return result;
+            } catch (Throwable throwable) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollback) {
+                    throwable.addSuppressed(rollback);
+                }
+                throw throwable;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package me.twentybytes.zuki.api.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import me.twentybytes.zuki.api.callback.SelectCallback;
+import me.twentybytes.zuki.api.request.Request;
+import me.twentybytes.zuki.api.request.RequestType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Typed select collects rows in its own callback, so future must be completed after all rows are mapped.
+ */
+class TypedSelectTest {
+
+    private static final int ROWS = 5_000;
+
+    public record Item(int id, String name, Long score) {
+    }
+
+    private ZukiDatabase database;
+
+    @BeforeEach
+    void open() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:typed;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(2);
+
+        database = new ZukiDatabase() {
+        };
+        database.setConfig(config);
+        database.detachedCallbacks(true).resultCache(16).start();
+        database.execute(Request.newBuilder(RequestType.UPDATE).sync(true)
+                .body("CREATE TABLE items AS SELECT X AS id, CONCAT('item', X) AS name, CASE WHEN MOD(X, 2) = 0 THEN X END AS score"
+                        + " FROM SYSTEM_RANGE(1, " + ROWS + ")"));
+    }
+
+    @AfterEach
+    void close() {
+        database.execute(Request.newBuilder(RequestType.UPDATE).sync(true).body("DROP TABLE items"));
+        database.close();
+        database.getService().shutdown();
+    }
+
+    @Test
+    void collectsAllRowsWithDetachedCallbacks() throws Exception {
+        assertRows(database.select(Request.newBuilder(RequestType.SELECT).body("SELECT * FROM items ORDER BY id"), Item.class)
+                .get(10, TimeUnit.SECONDS));
+        assertRows(database.select(Request.newBuilder(RequestType.SELECT).body("SELECT * FROM items ORDER BY id").detached(true), Item.class)
+                .get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void collectsAllRowsOfCachedSelect() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            Request request = Request.newBuilder(RequestType.SELECT).body("SELECT * FROM items ORDER BY id")
+                    .cache(Duration.ofMinutes(1)).tables("items");
+            assertRows(database.select(request, Item.class).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void keepsCallerRequestCallback() throws Exception {
+        SelectCallback callback = set -> { };
+        Request request = Request.newBuilder(RequestType.SELECT).body("SELECT * FROM items ORDER BY id").callback(callback);
+
+        assertRows(database.select(request, Item.class).get(10, TimeUnit.SECONDS));
+        assertSame(callback, request.getCallback());
+    }
+
+    @Test
+    void failsFutureWhenMappingFails() {
+        record Primitive(long score) {
+        }
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () ->
+                database.select(Request.newBuilder(RequestType.SELECT).body("SELECT score FROM items ORDER BY id"), Primitive.class)
+                        .get(10, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, exception.getCause());
+    }
+
+    private static void assertRows(List<Item> items) {
+        assertEquals(ROWS, items.size());
+        for (int i = 0; i < ROWS; i++) {
+            Item item = items.get(i);
+            assertEquals(i + 1, item.id());
+            assertEquals("item" + (i + 1), item.name());
+            assertEquals(item.id() % 2 == 0 ? Long.valueOf(item.id()) : null, item.score());
+        }
+    }
+
+}
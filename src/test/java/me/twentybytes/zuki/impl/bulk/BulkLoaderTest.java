@@ -0,0 +1,101 @@
+package me.twentybytes.zuki.impl.bulk;
+
+import me.twentybytes.zuki.api.bulk.BulkLoad;
+import me.twentybytes.zuki.api.bulk.BulkLoadResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * H2 connection is not mysql statement, so loads take insert fallback path.
+ */
+class BulkLoaderTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bulk;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id INT, name VARCHAR(20), created TIMESTAMP)");
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void loadsChunksAndTailByInserts() throws SQLException {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 31, 12, 0);
+        List<BulkLoadResult> progress = new ArrayList<>();
+        BulkLoadResult result = BulkLoader.load(connection, BulkLoad.newBuilder("items")
+                .columns("id", "name", "created")
+                .chunkSize(100)
+                .progress(200, progress::add)
+                .rows(IntStream.range(0, 1_050).mapToObj(i -> new Object[]{i, "n" + i, created})));
+
+        assertEquals(BulkLoadResult.Method.INSERT, result.getMethod());
+        assertEquals(1_050, result.getRows());
+        assertEquals(5, progress.size());
+        assertEquals(1_000, progress.get(4).getRows());
+
+        try (Statement statement = connection.createStatement();
+             ResultSet set = statement.executeQuery("SELECT COUNT(*), SUM(id), MAX(created) FROM items")) {
+            set.next();
+            assertEquals(1_050, set.getInt(1));
+            assertEquals(1_050 * 1_049 / 2, set.getLong(2));
+            assertEquals(created, set.getObject(3, LocalDateTime.class));
+        }
+    }
+
+    @Test
+    void rejectsRowOfWrongWidth() {
+        BulkLoad load = BulkLoad.newBuilder("items").columns("id", "name")
+                .rows(List.<Object[]>of(new Object[]{1}).iterator());
+        assertThrows(IllegalArgumentException.class, () -> BulkLoader.load(connection, load));
+    }
+
+    @Test
+    void cancelsPublisherWhenLoadFails() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flow.Publisher<Object[]> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            int next;
+
+            @Override
+            public void request(long count) {
+                for (long i = 0; i < count && !cancelled.get(); i++, next++) {
+                    // too long name fails second chunk.
+                    subscriber.onNext(new Object[]{next, next == 15 ? "n".repeat(30) : "n", null});
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+
+        BulkLoad load = BulkLoad.newBuilder("items").columns("id", "name", "created").chunkSize(10).rows(publisher);
+        assertThrows(SQLException.class, () -> BulkLoader.load(connection, load));
+        assertTrue(cancelled.get());
+    }
+
+}
@@ -0,0 +1,89 @@
+package me.twentybytes.zuki.impl.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TsvInputStreamTest {
+
+    @Test
+    void encodesScalarsAndEscapes() throws IOException {
+        assertEquals("1\ta\\tb\\\\c\\nd\\r\\0\t\\N\t1\n1000\tж\t\\0\\t\\\\A\t0\n", encode(
+                new Object[]{1, "a\tb\\c\nd\r\0", null, true},
+                new Object[]{new BigDecimal("1E+3"), "ж", new byte[]{0, 9, '\\', 'A'}, false}
+        ));
+    }
+
+    @Test
+    void encodesTemporalsAsMysqlLiterals() throws IOException {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 31, 23, 59, 58, 123_456_789);
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+
+        assertEquals("2024-01-31 23:59:58.123456\t2024-01-31\t07:05:00.000000\n", encode(
+                new Object[]{dateTime, dateTime.toLocalDate(), LocalTime.of(7, 5)}
+        ));
+        assertEquals("2024-01-31 23:59:58.123456\t2024-01-31 23:59:58.123456\t2024-01-31 23:59:58.123000\n", encode(
+                new Object[]{instant, Timestamp.valueOf(dateTime), Date.from(instant)}
+        ));
+        assertEquals("2024-02-01\t10:11:12.000000\n", encode(
+                new Object[]{java.sql.Date.valueOf(LocalDate.of(2024, 2, 1)), java.sql.Time.valueOf(LocalTime.of(10, 11, 12))}
+        ));
+    }
+
+    @Test
+    void reportsEveryRow() throws IOException {
+        AtomicInteger rows = new AtomicInteger();
+        TsvInputStream stream = new TsvInputStream(List.of(new Object[]{1}, new Object[]{2}).iterator(), 1, rows::incrementAndGet);
+        stream.readAllBytes();
+
+        assertEquals(2, rows.get());
+        assertEquals(2, stream.rows());
+    }
+
+    @Test
+    void rejectsRowOfWrongWidth() {
+        TsvInputStream stream = new TsvInputStream(List.<Object[]>of(new Object[]{1, 2}).iterator(), 3, () -> {});
+        assertThrows(IOException.class, stream::readAllBytes);
+    }
+
+    @Test
+    void reportsRowsSourceFailureAsIOException() {
+        Iterator<Object[]> rows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Object[] next() {
+                throw new IllegalStateException("publisher failed");
+            }
+        };
+        TsvInputStream stream = new TsvInputStream(rows, 1, () -> {});
+        IOException exception = assertThrows(IOException.class, stream::readAllBytes);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    private static String encode(Object[]... rows) throws IOException {
+        int columns = rows[0].length;
+        TsvInputStream stream = new TsvInputStream(List.of(rows).iterator(), columns, () -> {});
+        return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,126 @@
+package me.twentybytes.zuki.impl.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTest {
+
+    private static final long TICK_MILLIS = 2;
+
+    // 8 buckets of 2ms, so delays over 16ms take more than one wheel round.
+    private final HashedWheelTimer timer = new HashedWheelTimer("wheel-test", TICK_MILLIS, TimeUnit.MILLISECONDS, 5);
+
+    @AfterEach
+    void close() {
+        timer.close();
+    }
+
+    @Test
+    void firesNotBeforeDelayOverSeveralRounds() throws InterruptedException {
+        int count = 500;
+        CountDownLatch fired = new CountDownLatch(count);
+        AtomicInteger early = new AtomicInteger();
+        AtomicLong maxLate = new AtomicLong();
+
+        for (int i = 0; i < count; i++) {
+            long delay = ThreadLocalRandom.current().nextLong(0, 120);
+            long scheduledAt = System.nanoTime();
+            timer.schedule(() -> {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt);
+                if (elapsed < delay) {
+                    early.incrementAndGet();
+                }
+                maxLate.accumulateAndGet(elapsed - delay, Math::max);
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, early.get());
+        // one tick of wheel plus scheduling noise.
+        assertTrue(maxLate.get() < 500, "late by " + maxLate.get() + "ms");
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void firesInDeadlineOrder() throws InterruptedException {
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch fired = new CountDownLatch(3);
+        // same bucket (8 ticks apart), different rounds.
+        timer.schedule(() -> add(order, 3, fired), 8 * TICK_MILLIS * 4, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> add(order, 2, fired), 8 * TICK_MILLIS * 2, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> add(order, 1, fired), 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), order);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout queued = timer.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+        // let worker move it into bucket before cancel.
+        HashedWheelTimer.Timeout placed = timer.schedule(runs::incrementAndGet, 40, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertTrue(queued.cancel());
+        assertTrue(placed.cancel());
+        assertFalse(placed.cancel());
+        assertTrue(placed.isCancelled());
+        assertEquals(0, timer.pending());
+
+        CountDownLatch fired = new CountDownLatch(1);
+        HashedWheelTimer.Timeout marker = timer.schedule(fired::countDown, 60, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertTrue(marker.isExpired());
+        assertFalse(marker.cancel());
+    }
+
+    @Test
+    void survivesFailedTask() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        timer.schedule(() -> {
+            throw new IllegalStateException("task failed");
+        }, 1, TimeUnit.MILLISECONDS);
+        timer.schedule(fired::countDown, 10, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closedTimerRunsNothing() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        timer.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        timer.close();
+
+        Thread.sleep(60);
+        assertEquals(0, runs.get());
+        assertThrows(IllegalStateException.class, () -> timer.schedule(runs::incrementAndGet, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsIllegalSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("illegal", 0, TimeUnit.MILLISECONDS, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("illegal", 1, TimeUnit.MILLISECONDS, 0));
+    }
+
+    private static void add(List<Integer> order, int value, CountDownLatch fired) {
+        // tasks run on the single worker thread.
+        order.add(value);
+        fired.countDown();
+    }
+
+}
@@ -0,0 +1,151 @@
+package me.twentybytes.zuki.impl.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderedLanesTest {
+
+    private static final int SUBMITTERS = 4;
+    private static final int KEYS = 8;
+    private static final int TASKS = 2000;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void close() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void keepsPerKeyOrderOfInterleavedSubmits() throws Exception {
+        OrderedLanes lanes = new OrderedLanes();
+
+        // run order of {submitter, sequence} per key, tasks of one key never overlap.
+        List<List<int[]>> runs = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            runs.add(new ArrayList<>());
+            running.add(new AtomicInteger());
+        }
+        AtomicInteger overlaps = new AtomicInteger();
+        Queue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < SUBMITTERS; s++) {
+            int submitter = s;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                for (int i = 0; i < TASKS; i++) {
+                    int key = (i * 7 + submitter) % KEYS;
+                    int sequence = i;
+                    futures.add(lanes.submit(key, () -> CompletableFuture.runAsync(() -> {
+                        if (running.get(key).incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        runs.get(key).add(new int[] {submitter, sequence});
+                        running.get(key).decrementAndGet();
+                    }, workers)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertEquals(0, overlaps.get());
+        int total = 0;
+        for (List<int[]> keyRuns : runs) {
+            int[] last = new int[SUBMITTERS];
+            Arrays.fill(last, -1);
+            for (int[] run : keyRuns) {
+                assertTrue(run[1] > last[run[0]], "tasks of one submitter and key run in submission order");
+                last[run[0]] = run[1];
+            }
+            total += keyRuns.size();
+        }
+        assertEquals(SUBMITTERS * TASKS, total);
+        awaitRetired(lanes);
+    }
+
+    @Test
+    void recreatesRetiredLaneOfSameKey() throws Exception {
+        OrderedLanes lanes = new OrderedLanes();
+        List<Integer> order = new ArrayList<>();
+
+        for (int round = 0; round < 100; round++) {
+            CompletableFuture<Void> gate = new CompletableFuture<>();
+            int base = round * 3;
+            lanes.submit("key", () -> gate.thenRun(() -> order.add(base)));
+            lanes.submit("key", () -> {
+                order.add(base + 1);
+                return null;
+            });
+            CompletableFuture<Void> last = lanes.submit("key", () -> CompletableFuture.runAsync(() -> order.add(base + 2), workers));
+            assertEquals(1, lanes.size());
+
+            gate.complete(null);
+            last.get(5, TimeUnit.SECONDS);
+            awaitRetired(lanes);
+        }
+
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void failedTaskDoesNotStallLane() throws Exception {
+        OrderedLanes lanes = new OrderedLanes();
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+
+        CompletableFuture<Void> blocked = lanes.submit("key", () -> gate);
+        CompletableFuture<Void> thrown = lanes.submit("key", () -> {
+            throw new IllegalStateException("task failed");
+        });
+        CompletableFuture<Void> next = lanes.submit("key", () -> CompletableFuture.completedFuture(null));
+
+        gate.completeExceptionally(new IllegalStateException("request failed"));
+        next.get(5, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, blocked::get);
+        assertThrows(ExecutionException.class, thrown::get);
+        awaitRetired(lanes);
+    }
+
+    /**
+     * Lane is removed right after result of its last task is completed.
+     */
+    private static void awaitRetired(OrderedLanes lanes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lanes.size() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, lanes.size());
+    }
+
+}
@@ -0,0 +1,132 @@
+package me.twentybytes.zuki.impl.routing;
+
+import com.zaxxer.hikari.HikariConfig;
+import me.twentybytes.zuki.api.routing.ReplicaPolicy;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Replicas are H2 databases with table naming them, remote replica
+ * is served by H2 tcp server which is stopped to simulate outage.
+ */
+class ReplicaSetTest {
+
+    private static final ReplicaPolicy POLICY = ReplicaPolicy.newBuilder().healthCheckInterval(Duration.ofHours(1));
+
+    private final List<Connection> keepAlive = new ArrayList<>();
+    private Server server;
+    private int port;
+
+    @BeforeEach
+    void open() throws SQLException {
+        for (String name : new String[] {"primary", "first", "second", "remote"}) {
+            Connection connection = DriverManager.getConnection(memory(name));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE who (name VARCHAR(16))");
+                statement.execute("INSERT INTO who VALUES ('" + name + "')");
+            }
+            keepAlive.add(connection);
+        }
+        server = Server.createTcpServer("-tcpPort", "0", "-tcpAllowOthers").start();
+        port = server.getPort();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        server.stop();
+        for (Connection connection : keepAlive) {
+            connection.close();
+        }
+        keepAlive.clear();
+    }
+
+    @Test
+    void routesRoundRobinOverReplicas() throws SQLException {
+        try (ReplicaSet replicas = new ReplicaSet(List.of(config(memory("first")), config(memory("second"))), POLICY)) {
+            assertEquals(List.of("first", "second", "first", "second"), route(replicas, 4));
+        }
+    }
+
+    @Test
+    void excludesUnavailableReplicaOnStart() throws SQLException {
+        String unavailable = "jdbc:h2:tcp://localhost:1/mem:missing";
+        HikariConfig config = config(unavailable);
+        try (ReplicaSet replicas = new ReplicaSet(List.of(config(memory("first")), config), POLICY)) {
+            assertEquals(1, replicas.healthy());
+            assertEquals(List.of("first", "first", "first"), route(replicas, 3));
+        }
+        // fail timeout is changed on copy only.
+        assertEquals(1, config.getInitializationFailTimeout());
+    }
+
+    @Test
+    void excludesFailedReplicaAndRecovers() throws SQLException {
+        String remote = "jdbc:h2:tcp://localhost:" + port + "/mem:remote";
+        try (ReplicaSet replicas = new ReplicaSet(List.of(config(memory("first")), config(remote)), POLICY)) {
+            assertEquals(2, replicas.healthy());
+            assertEquals(List.of("first", "remote"), route(replicas, 2));
+
+            server.stop();
+            replicas.check();
+            assertEquals(1, replicas.healthy());
+            assertEquals(List.of("first", "first", "first"), route(replicas, 3));
+
+            server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-tcpAllowOthers").start();
+            replicas.check();
+            assertEquals(2, replicas.healthy());
+            assertEquals(List.of("first", "remote"), sorted(route(replicas, 2)));
+        }
+    }
+
+    @Test
+    void fallsBackToPrimaryWithoutHealthyReplicas() throws SQLException {
+        try (ReplicaSet replicas = new ReplicaSet(List.of(config("jdbc:h2:tcp://localhost:1/mem:missing")), POLICY)) {
+            assertEquals(0, replicas.healthy());
+            assertEquals(List.of("primary"), route(replicas, 1));
+        }
+    }
+
+    private static List<String> route(ReplicaSet replicas, int count) throws SQLException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            try (Connection connection = replicas.connection(() -> DriverManager.getConnection(memory("primary")));
+                 Statement statement = connection.createStatement();
+                 ResultSet set = statement.executeQuery("SELECT name FROM who")) {
+                set.next();
+                names.add(set.getString(1));
+            }
+        }
+        return names;
+    }
+
+    private static List<String> sorted(List<String> names) {
+        names.sort(null);
+        return names;
+    }
+
+    private static String memory(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL";
+    }
+
+    private static HikariConfig config(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(500);
+        return config;
+    }
+
+}
@@ -0,0 +1,144 @@
+package me.twentybytes.zuki.impl.script;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Every script is also read by one char at a time, so tokens cross buffer fills.
+ */
+class SqlScriptReaderTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void splitsByDelimiterAndSkipsEmptyStatements(boolean trickle) throws IOException {
+        assertEquals(List.of("CREATE TABLE t (id INT)", "INSERT INTO t VALUES (1)", "DELETE FROM t", "SELECT 1"),
+                split(" CREATE TABLE t (id INT);\n\n;;INSERT INTO t VALUES (1);\r\nDELETE FROM t ;\nSELECT 1", trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void keepsDelimitersInsideQuotes(boolean trickle) throws IOException {
+        assertEquals(List.of(
+                "INSERT INTO t VALUES ('a;b', \"c;d\")",
+                "SELECT `odd;name` FROM t",
+                "SELECT 'it\\'s; escaped', 'doubled '';quote'",
+                "SELECT \"say \\\"hi;\\\"\""
+        ), split("INSERT INTO t VALUES ('a;b', \"c;d\");"
+                + "SELECT `odd;name` FROM t;"
+                + "SELECT 'it\\'s; escaped', 'doubled '';quote';"
+                + "SELECT \"say \\\"hi;\\\"\";", trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void dropsCommentsWithDelimiters(boolean trickle) throws IOException {
+        // dropped line comment leaves new line, block comment leaves space.
+        assertEquals(List.of("SELECT 1", "SELECT 2 \n, 3", "SELECT 4   + 5", "SELECT 6--1", "SELECT '-- not comment', '/* text */'"),
+                split("-- leading; comment\n"
+                        + "# hash; comment\n"
+                        + "SELECT 1;\n"
+                        + "SELECT 2 -- trailing; comment\n, 3;\n"
+                        + "/* block; comment */ SELECT 4 /* inner; */ + 5;\n"
+                        + "SELECT 6--1;\n"
+                        + "SELECT '-- not comment', '/* text */';\n"
+                        + "-- trailing comment without new line", trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void keepsExecutableAndHintComments(boolean trickle) throws IOException {
+        assertEquals(List.of("/*!40101 SET NAMES utf8mb4 */", "SELECT /*+ MAX_EXECUTION_TIME(1000) */ id FROM t"),
+                split("/*!40101 SET NAMES utf8mb4 */;\nSELECT /*+ MAX_EXECUTION_TIME(1000) */ id FROM t;", trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void switchesDelimiter(boolean trickle) throws IOException {
+        String script = "DROP PROCEDURE IF EXISTS p;\n"
+                + "delimiter $$\n"
+                + "CREATE PROCEDURE p()\n"
+                + "BEGIN\n"
+                + "  SELECT ';$' ; -- $$ in comment\n"
+                + "  SELECT 2;\n"
+                + "END$$\n"
+                + "DELIMITER ;\n"
+                + "CALL p();\n";
+        assertEquals(List.of(
+                "DROP PROCEDURE IF EXISTS p",
+                "CREATE PROCEDURE p()\nBEGIN\n  SELECT ';$' ; \n  SELECT 2;\nEND",
+                "CALL p()"
+        ), split(script, trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void keepsMultiCharDelimiterInsideQuotesAndComments(boolean trickle) throws IOException {
+        assertEquals(List.of("SELECT 'a//b', `c//d`", "SELECT 2"),
+                split("DELIMITER //\nSELECT 'a//b', `c//d` /* e// */ //\n# f //\nSELECT 2//", trickle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void readsStatementsLongerThanBuffer(boolean trickle) throws IOException {
+        String value = "x;".repeat(10_000);
+        List<String> statements = split("SELECT '" + value + "', 1;\nSELECT 2;", trickle);
+        assertEquals(List.of("SELECT '" + value + "', 1", "SELECT 2"), statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void reportsStatementStartLine(boolean trickle) throws IOException {
+        try (SqlScriptReader reader = new SqlScriptReader(reader("-- header\n\nSELECT 1;\nSELECT\n'a\nb';\n\n  SELECT 3;", trickle))) {
+            List<Long> lines = new ArrayList<>();
+            while (reader.next() != null) {
+                lines.add(reader.statementLine());
+            }
+            assertEquals(List.of(3L, 4L, 8L), lines);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void rejectsEmptyDelimiter(boolean trickle) {
+        assertThrows(IOException.class, () -> split("DELIMITER  \nSELECT 1;", trickle));
+    }
+
+    private static List<String> split(String script, boolean trickle) throws IOException {
+        List<String> statements = new ArrayList<>();
+        try (SqlScriptReader reader = new SqlScriptReader(reader(script, trickle))) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    private static Reader reader(String script, boolean trickle) {
+        StringReader reader = new StringReader(script);
+        if (!trickle) {
+            return reader;
+        }
+        return new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return reader.read(buffer, offset, Math.min(length, 1));
+            }
+
+            @Override
+            public void close() {
+                reader.close();
+            }
+        };
+    }
+
+}